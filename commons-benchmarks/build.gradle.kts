@@ -0,0 +1,37 @@
+plugins {
+    `commons-java`
+    `commons-repositories`
+}
+
+dependencies {
+    implementation(project(":commons-shared"))
+    implementation(testFixtures(project(":commons-shared")))
+    implementation(project(":commons-bukkit"))
+    implementation(libs.gson)
+    implementation(libs.spigot)
+
+    implementation(libs.jmh.core)
+    annotationProcessor(libs.jmh.generator.annprocess)
+}
+
+tasks {
+    register<JavaExec>("jmh") {
+        group = "benchmark"
+        description = "Runs the JMH benchmarks. Pass a benchmark regex with -Pjmh.includes=<regex> " +
+                "and the JSON results file with -Pjmh.results=<path>."
+        dependsOn(classes)
+        val results = project.findProperty("jmh.results")?.let { file(it) }
+            ?: layout.buildDirectory.file("jmh/results-${project.version}.json").get().asFile
+        classpath = sourceSets.main.get().runtimeClasspath
+        mainClass.set("org.openjdk.jmh.Main")
+        args(
+            project.findProperty("jmh.includes")?.toString() ?: ".*",
+            "-prof", "gc",
+            "-rf", "json",
+            "-rff", results.absolutePath
+        )
+        doFirst {
+            results.parentFile.mkdirs()
+        }
+    }
+}
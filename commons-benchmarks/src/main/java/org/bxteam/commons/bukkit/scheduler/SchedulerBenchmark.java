@@ -0,0 +1,71 @@
+package org.bxteam.commons.bukkit.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bxteam.commons.logger.LogContext;
+import org.bxteam.commons.scheduler.Scheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead the {@link Scheduler} wrapper adds on top of the Bukkit scheduler it delegates to.
+ * The {@link StubServer} runs tasks inline, so {@code direct} is the cost of the stub itself and the
+ * difference to the other benchmarks is the wrapper, including {@link LogContext} propagation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark {
+    private final LogContext context = LogContext.empty().with("player", "Steve");
+    private long counter;
+    private final Runnable task = () -> counter++;
+    private Plugin plugin;
+    private Scheduler scheduler;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+        plugin = StubServer.plugin();
+        scheduler = new BukkitScheduler(plugin);
+    }
+
+    @Benchmark
+    public Object direct() {
+        return Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    @Benchmark
+    public Object runTask() {
+        return scheduler.runTask(task);
+    }
+
+    @Benchmark
+    public Object runTaskAsynchronously() {
+        return scheduler.runTaskAsynchronously(task);
+    }
+
+    @Benchmark
+    public Object runTaskWithContext() {
+        try (LogContext.Scope scope = context.attach()) {
+            return scheduler.runTask(task);
+        }
+    }
+
+    @Benchmark
+    public void execute() {
+        scheduler.execute(task);
+    }
+}
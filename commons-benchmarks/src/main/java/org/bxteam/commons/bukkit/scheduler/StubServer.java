@@ -0,0 +1,107 @@
+package org.bxteam.commons.bukkit.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.logging.Logger;
+
+/**
+ * Minimal {@link Server} for benchmarks, built from dynamic proxies.
+ * <p>
+ * Its scheduler runs every task inline on the calling thread and returns a shared {@link BukkitTask}, so a
+ * benchmark measures the wrapper around the Bukkit scheduler rather than a real tick loop. Every other
+ * method returns {@code null}, {@code false}, zero or a placeholder string.
+ */
+final class StubServer {
+    private static final Logger LOGGER = Logger.getLogger("StubServer");
+    private static final BukkitTask TASK = proxy(BukkitTask.class, (proxy, method, args) -> defaultValue(method));
+    private static final org.bukkit.scheduler.BukkitScheduler SCHEDULER = proxy(org.bukkit.scheduler.BukkitScheduler.class, StubServer::schedule);
+    private static final Server SERVER = proxy(Server.class, (proxy, method, args) -> {
+        switch (method.getName()) {
+            case "getScheduler":
+                return SCHEDULER;
+            case "getLogger":
+                return LOGGER;
+            case "isPrimaryThread":
+                return true;
+            default:
+                return defaultValue(method);
+        }
+    });
+    private static final Plugin PLUGIN = proxy(Plugin.class, (proxy, method, args) -> {
+        switch (method.getName()) {
+            case "getLogger":
+                return LOGGER;
+            case "isEnabled":
+                return true;
+            default:
+                return defaultValue(method);
+        }
+    });
+
+    private StubServer() {
+    }
+
+    /**
+     * Installs the stub as the Bukkit server unless one is already installed.
+     */
+    static synchronized void install() {
+        if (Bukkit.getServer() == null) {
+            Bukkit.setServer(SERVER);
+        }
+    }
+
+    /**
+     * Returns a plugin to schedule tasks for.
+     *
+     * @return the stub plugin
+     */
+    static Plugin plugin() {
+        return PLUGIN;
+    }
+
+    private static Object schedule(Object proxy, Method method, Object[] args) {
+        if (args != null) {
+            for (Object arg : args) {
+                if (arg instanceof Runnable) {
+                    ((Runnable) arg).run();
+                    break;
+                }
+            }
+        }
+        return method.getReturnType() == BukkitTask.class ? TASK : defaultValue(method);
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0D;
+        }
+        if (type == float.class) {
+            return 0.0F;
+        }
+        if (type == String.class) {
+            return "stub";
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StubServer.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
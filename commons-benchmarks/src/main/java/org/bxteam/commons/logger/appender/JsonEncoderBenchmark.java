@@ -0,0 +1,83 @@
+package org.bxteam.commons.logger.appender;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogLevel;
+import org.bxteam.commons.logger.LogProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hand-written {@link JsonEncoder} with the Gson serialization it replaced in {@link JsonAppender}.
+ * Both paths produce UTF-8 bytes ready to be written to a file. {@code deduplicatingEncoder} writes stack
+ * traces it has already seen by fingerprint, as {@link JsonAppender} does with deduplication enabled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonEncoderBenchmark {
+    @Param({"simple", "properties", "deepCause"})
+    public String scenario;
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new ThrowableTypeAdapterFactory())
+            .create();
+    private final JsonEncoder encoder = new JsonEncoder(false);
+    private final JsonEncoder deduplicatingEncoder = new JsonEncoder(false, new StackTraceCache());
+    private LogEntry entry;
+
+    @Setup
+    public void setup() {
+        Throwable throwable = null;
+        if (scenario.equals("deepCause")) {
+            for (int i = 0; i < 8; i++) {
+                throwable = new IllegalStateException("Failure at depth " + i, throwable);
+            }
+        }
+
+        entry = new LogEntry("Economy", LogLevel.INFO, "Player Steve paid 250 coins to Alex", System.currentTimeMillis(),
+                1L, "Region Scheduler Thread #4", throwable, new LogProperties());
+
+        if (scenario.equals("properties")) {
+            entry.addProperty("player", "Steve")
+                    .addProperty("target", "Alex")
+                    .addProperty("amount", 250L)
+                    .addProperty("world", "world_nether");
+        }
+    }
+
+    @Benchmark
+    public byte[] gson() {
+        return gson.toJson(entry).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int encoder() {
+        encoder.reset();
+        encoder.encode(entry);
+        return encoder.length();
+    }
+
+    @Benchmark
+    public int deduplicatingEncoder() {
+        deduplicatingEncoder.reset();
+        deduplicatingEncoder.encode(entry);
+        return deduplicatingEncoder.length();
+    }
+}
@@ -0,0 +1,60 @@
+package org.bxteam.commons.logger.appender;
+
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogLevel;
+import org.bxteam.commons.logger.LogProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the text rendering {@link ConsoleAppender} performs for every entry, without the console write.
+ * The {@code repeatedStackTrace} scenario renders a stack trace the {@link StackTraceCache} has already seen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogTemplateBenchmark {
+    @Param({"simple", "stackTrace", "repeatedStackTrace"})
+    public String scenario;
+
+    private final LogTemplate template = LogTemplate.compile(ConsoleAppender.DEFAULT_FORMAT);
+    private final StringBuilder builder = new StringBuilder(1024);
+    private StackTraceCache stackTraces;
+    private LogEntry entry;
+
+    @Setup
+    public void setup() {
+        Throwable throwable = null;
+        if (!scenario.equals("simple")) {
+            throwable = new IllegalStateException("Could not save profile", new RuntimeException("Connection reset"));
+        }
+        entry = new LogEntry("Economy", LogLevel.ERROR, "Player Steve paid 250 coins to Alex", System.currentTimeMillis(),
+                1L, "Region Scheduler Thread #4", throwable, new LogProperties());
+
+        if (scenario.equals("repeatedStackTrace")) {
+            stackTraces = new StackTraceCache();
+            template.render(entry, builder, stackTraces);
+        }
+    }
+
+    @Benchmark
+    public int render() {
+        builder.setLength(0);
+        template.render(entry, builder, stackTraces);
+        return builder.length();
+    }
+}
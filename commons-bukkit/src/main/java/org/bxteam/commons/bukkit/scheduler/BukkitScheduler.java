@@ -4,14 +4,28 @@ import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.plugin.Plugin;
+import org.bxteam.commons.logger.LogContext;
 import org.bxteam.commons.scheduler.Scheduler;
 import org.bxteam.commons.scheduler.Task;
+import org.bxteam.commons.scheduler.VirtualThreadAsyncScheduler;
 
 public class BukkitScheduler implements Scheduler {
     final Plugin plugin;
+    private final VirtualThreadAsyncScheduler virtualThreads;
 
     public BukkitScheduler(Plugin plugin) {
+        this(plugin, false);
+    }
+
+    /**
+     * Constructs a BukkitScheduler.
+     *
+     * @param plugin         the plugin owning the scheduled tasks
+     * @param virtualThreads whether async tasks run on virtual threads, ignored before Java 21
+     */
+    public BukkitScheduler(Plugin plugin, boolean virtualThreads) {
         this.plugin = plugin;
+        this.virtualThreads = virtualThreads ? VirtualThreadAsyncScheduler.create(plugin) : null;
     }
 
     @Override
@@ -31,46 +45,61 @@ public class BukkitScheduler implements Scheduler {
 
     @Override
     public Task runTask(Runnable runnable) {
-        return new BukkitScheduledTask(Bukkit.getScheduler().runTask(plugin, runnable));
+        return new BukkitScheduledTask(Bukkit.getScheduler().runTask(plugin, LogContext.propagate(runnable)));
     }
 
     @Override
     public Task runTaskLater(Runnable runnable, long delay) {
-        return new BukkitScheduledTask(Bukkit.getScheduler().runTaskLater(plugin, runnable, delay));
+        return new BukkitScheduledTask(Bukkit.getScheduler().runTaskLater(plugin, LogContext.propagate(runnable), delay));
     }
 
     @Override
     public Task runTaskTimer(Runnable runnable, long delay, long period) {
-        return new BukkitScheduledTask(Bukkit.getScheduler().runTaskTimer(plugin, runnable, delay, period));
+        return new BukkitScheduledTask(Bukkit.getScheduler().runTaskTimer(plugin, LogContext.propagate(runnable), delay, period));
     }
 
     @Override
     public Task runTaskAsynchronously(Runnable runnable) {
-        return new BukkitScheduledTask(Bukkit.getScheduler().runTaskAsynchronously(plugin, runnable));
+        if (virtualThreads != null) {
+            return virtualThreads.runTask(runnable);
+        }
+        return new BukkitScheduledTask(Bukkit.getScheduler().runTaskAsynchronously(plugin, LogContext.propagate(runnable)));
     }
 
     @Override
     public Task runTaskLaterAsynchronously(Runnable runnable, long delay) {
-        return new BukkitScheduledTask(Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, runnable, delay));
+        if (virtualThreads != null) {
+            return virtualThreads.runTaskLater(runnable, delay);
+        }
+        return new BukkitScheduledTask(Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, LogContext.propagate(runnable), delay));
     }
 
     @Override
     public Task runTaskTimerAsynchronously(Runnable runnable, long delay, long period) {
-        return new BukkitScheduledTask(Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, runnable, delay, period));
+        if (virtualThreads != null) {
+            return virtualThreads.runTaskTimer(runnable, delay, period);
+        }
+        return new BukkitScheduledTask(Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, LogContext.propagate(runnable), delay, period));
     }
 
     @Override
     public void execute(Runnable runnable) {
-        Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, runnable);
+        Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, LogContext.propagate(runnable));
     }
 
     @Override
     public void cancelTasks() {
         Bukkit.getScheduler().cancelTasks(plugin);
+        if (virtualThreads != null) {
+            virtualThreads.cancelTasks();
+        }
     }
 
     @Override
     public void cancelTasks(Plugin plugin) {
         Bukkit.getScheduler().cancelTasks(plugin);
+        if (virtualThreads != null && plugin == this.plugin) {
+            virtualThreads.cancelTasks();
+        }
     }
 }
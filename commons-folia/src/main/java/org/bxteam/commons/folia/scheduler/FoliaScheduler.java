@@ -3,20 +3,69 @@ package org.bxteam.commons.folia.scheduler;
 import io.papermc.paper.threadedregions.scheduler.AsyncScheduler;
 import io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler;
 import io.papermc.paper.threadedregions.scheduler.RegionScheduler;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.plugin.Plugin;
+import org.bxteam.commons.logger.LogContext;
+import org.bxteam.commons.scheduler.RegionKey;
 import org.bxteam.commons.scheduler.Scheduler;
 import org.bxteam.commons.scheduler.Task;
+import org.bxteam.commons.scheduler.VirtualThreadAsyncScheduler;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class FoliaScheduler implements Scheduler {
     final Plugin plugin;
+    private final int regionShift;
+    private final VirtualThreadAsyncScheduler virtualThreads;
 
+    /**
+     * Constructs a FoliaScheduler grouping bulk dispatches by region section, with {@link RegionKey#DEFAULT_SHIFT}.
+     *
+     * @param plugin the plugin owning the scheduled tasks
+     */
     public FoliaScheduler(Plugin plugin) {
+        this(plugin, RegionKey.DEFAULT_SHIFT);
+    }
+
+    /**
+     * Constructs a FoliaScheduler.
+     *
+     * @param plugin      the plugin owning the scheduled tasks
+     * @param regionShift the shift of the {@link RegionKey} bulk dispatches group items by, must not exceed
+     *                    the region section grid exponent of the server, lower it if the server configures a
+     *                    smaller exponent than the default 4
+     */
+    public FoliaScheduler(Plugin plugin, int regionShift) {
+        this(plugin, regionShift, false);
+    }
+
+    /**
+     * Constructs a FoliaScheduler.
+     *
+     * @param plugin         the plugin owning the scheduled tasks
+     * @param regionShift    the shift of the {@link RegionKey} bulk dispatches group items by, must not exceed
+     *                       the region section grid exponent of the server
+     * @param virtualThreads whether async tasks run on virtual threads, ignored before Java 21
+     */
+    public FoliaScheduler(Plugin plugin, int regionShift, boolean virtualThreads) {
         this.plugin = plugin;
+        this.regionShift = RegionKey.checkShift(regionShift);
+        this.virtualThreads = virtualThreads ? VirtualThreadAsyncScheduler.create(plugin) : null;
     }
 
     private final RegionScheduler regionScheduler = Bukkit.getServer().getRegionScheduler();
@@ -43,9 +92,14 @@ public class FoliaScheduler implements Scheduler {
         return Bukkit.getServer().isOwnedByCurrentRegion(location);
     }
 
+    @Override
+    public boolean isRegionized() {
+        return true;
+    }
+
     @Override
     public Task runTask(Runnable runnable) {
-        return new FoliaScheduledTask(globalRegionScheduler.run(plugin, task -> runnable.run()));
+        return new FoliaScheduledTask(globalRegionScheduler.run(plugin, consumer(runnable)));
     }
 
     @Override
@@ -53,18 +107,18 @@ public class FoliaScheduler implements Scheduler {
         if (delay <= 0) {
             return runTask(runnable);
         }
-        return new FoliaScheduledTask(globalRegionScheduler.runDelayed(plugin, task -> runnable.run(), delay));
+        return new FoliaScheduledTask(globalRegionScheduler.runDelayed(plugin, consumer(runnable), delay));
     }
 
     @Override
     public Task runTaskTimer(Runnable runnable, long delay, long period) {
         delay = getOneIfNotPositive(delay);
-        return new FoliaScheduledTask(globalRegionScheduler.runAtFixedRate(plugin, task -> runnable.run(), delay, period));
+        return new FoliaScheduledTask(globalRegionScheduler.runAtFixedRate(plugin, consumer(runnable), delay, period));
     }
 
     @Override
     public Task runTask(Location location, Runnable runnable) {
-        return new FoliaScheduledTask(regionScheduler.run(plugin, location, task -> runnable.run()));
+        return new FoliaScheduledTask(regionScheduler.run(plugin, location, consumer(runnable)));
     }
 
     @Override
@@ -72,18 +126,18 @@ public class FoliaScheduler implements Scheduler {
         if (delay <= 0) {
             return runTask(runnable);
         }
-        return new FoliaScheduledTask(regionScheduler.runDelayed(plugin, location, task -> runnable.run(), delay));
+        return new FoliaScheduledTask(regionScheduler.runDelayed(plugin, location, consumer(runnable), delay));
     }
 
     @Override
     public Task runTaskTimer(Location location, Runnable runnable, long delay, long period) {
         delay = getOneIfNotPositive(delay);
-        return new FoliaScheduledTask(regionScheduler.runAtFixedRate(plugin, location, task -> runnable.run(), delay, period));
+        return new FoliaScheduledTask(regionScheduler.runAtFixedRate(plugin, location, consumer(runnable), delay, period));
     }
 
     @Override
     public Task runTask(Entity entity, Runnable runnable) {
-        return new FoliaScheduledTask(entity.getScheduler().run(plugin, task -> runnable.run(), null));
+        return new FoliaScheduledTask(entity.getScheduler().run(plugin, consumer(runnable), null));
     }
 
     @Override
@@ -91,59 +145,185 @@ public class FoliaScheduler implements Scheduler {
         if (delay <= 0) {
             return runTask(entity, runnable);
         }
-        return new FoliaScheduledTask(entity.getScheduler().runDelayed(plugin, task -> runnable.run(), null, delay));
+        return new FoliaScheduledTask(entity.getScheduler().runDelayed(plugin, consumer(runnable), null, delay));
     }
 
     @Override
     public Task runTaskTimer(Entity entity, Runnable runnable, long delay, long period) {
         delay = getOneIfNotPositive(delay);
-        return new FoliaScheduledTask(entity.getScheduler().runAtFixedRate(plugin, task -> runnable.run(), null, delay, period));
+        return new FoliaScheduledTask(entity.getScheduler().runAtFixedRate(plugin, consumer(runnable), null, delay, period));
     }
 
     @Override
     public Task runTaskAsynchronously(Runnable runnable) {
-        return new FoliaScheduledTask(asyncScheduler.runNow(plugin, task -> runnable.run()));
+        if (virtualThreads != null) {
+            return virtualThreads.runTask(runnable);
+        }
+        return new FoliaScheduledTask(asyncScheduler.runNow(plugin, consumer(runnable)));
     }
 
     @Override
     public Task runTaskLaterAsynchronously(Runnable runnable, long delay) {
+        if (virtualThreads != null) {
+            return virtualThreads.runTaskLater(runnable, delay);
+        }
         delay = getOneIfNotPositive(delay);
-        return new FoliaScheduledTask(asyncScheduler.runDelayed(plugin, task -> runnable.run(), delay * 50L, TimeUnit.MILLISECONDS));
+        return new FoliaScheduledTask(asyncScheduler.runDelayed(plugin, consumer(runnable), delay * 50L, TimeUnit.MILLISECONDS));
     }
 
     @Override
     public Task runTaskTimerAsynchronously(Runnable runnable, long delay, long period) {
-        return new FoliaScheduledTask(asyncScheduler.runAtFixedRate(plugin, task -> runnable.run(), delay * 50, period * 50, TimeUnit.MILLISECONDS));
+        if (virtualThreads != null) {
+            return virtualThreads.runTaskTimer(runnable, delay, period);
+        }
+        return new FoliaScheduledTask(asyncScheduler.runAtFixedRate(plugin, consumer(runnable), delay * 50, period * 50, TimeUnit.MILLISECONDS));
     }
 
     @Override
     public void execute(Runnable runnable) {
-        globalRegionScheduler.execute(plugin, runnable);
+        globalRegionScheduler.execute(plugin, LogContext.propagate(runnable));
     }
 
     @Override
     public void execute(Location location, Runnable runnable) {
-        regionScheduler.execute(plugin, location, runnable);
+        regionScheduler.execute(plugin, location, LogContext.propagate(runnable));
     }
 
     @Override
     public void execute(Entity entity, Runnable runnable) {
-        entity.getScheduler().execute(plugin, runnable, null, 1L);
+        entity.getScheduler().execute(plugin, LogContext.propagate(runnable), null, 1L);
+    }
+
+    @Override
+    public Executor entityExecutor(Entity entity) {
+        return runnable -> {
+            if (!entity.getScheduler().execute(plugin, LogContext.propagate(runnable), null, 1L)) {
+                throw new RejectedExecutionException("Entity " + entity + " is no longer scheduled");
+            }
+        };
+    }
+
+    @Override
+    public <T> CompletableFuture<T> supply(Entity entity, Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable task = LogContext.propagate(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        // The retired callback runs instead of the task when the entity is removed before the task runs.
+        Runnable retired = () -> future.completeExceptionally(new CancellationException("Entity " + entity + " was removed"));
+        if (!entity.getScheduler().execute(plugin, task, retired, 1L)) {
+            future.completeExceptionally(new RejectedExecutionException("Entity " + entity + " is no longer scheduled"));
+        }
+        return future;
+    }
+
+    @Override
+    public <T> CompletableFuture<Void> runForEach(Collection<? extends T> items, Function<? super T, Location> locator,
+                                                  Consumer<? super T> action) {
+        if (!isRegionized()) {
+            return Scheduler.super.runForEach(items, locator, action);
+        }
+        Map<RegionKey, Group<T>> groups = new HashMap<>();
+        for (T item : items) {
+            Location location = locator.apply(item);
+            groups.computeIfAbsent(RegionKey.of(location, regionShift), key -> new Group<>(location)).items.add(item);
+        }
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[groups.size()];
+        int index = 0;
+        for (Group<T> group : groups.values()) {
+            futures[index++] = supply(group.location, () -> {
+                group.items.forEach(action);
+                return null;
+            });
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    @Override
+    public <E extends Entity> CompletableFuture<Void> runForEachEntity(Collection<? extends E> entities, Consumer<? super E> action) {
+        if (!isRegionized()) {
+            return Scheduler.super.runForEachEntity(entities, action);
+        }
+        Map<RegionKey, Group<E>> groups = new HashMap<>();
+        for (E entity : entities) {
+            // Reading the location off the owning thread is racy, the region task checks the ownership again.
+            Location location = entity.getLocation();
+            groups.computeIfAbsent(RegionKey.of(location, regionShift), key -> new Group<>(location)).items.add(entity);
+        }
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[groups.size()];
+        int index = 0;
+        for (Group<E> group : groups.values()) {
+            futures[index++] = supply(group.location, () -> {
+                List<CompletableFuture<Void>> moved = new ArrayList<>();
+                for (E entity : group.items) {
+                    if (Bukkit.getServer().isOwnedByCurrentRegion(entity)) {
+                        action.accept(entity);
+                    } else {
+                        moved.add(runSkippingRetired(entity, action));
+                    }
+                }
+                // Entities which left the region are processed by their entity scheduler, the group completes with them.
+                return CompletableFuture.allOf(moved.toArray(new CompletableFuture<?>[0]));
+            }).thenCompose(Function.identity());
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    private <E extends Entity> CompletableFuture<Void> runSkippingRetired(E entity, Consumer<? super E> action) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Runnable task = LogContext.propagate(() -> {
+            try {
+                action.accept(entity);
+                future.complete(null);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        if (!entity.getScheduler().execute(plugin, task, () -> future.complete(null), 1L)) {
+            future.complete(null);
+        }
+        return future;
     }
 
     @Override
     public void cancelTasks() {
         globalRegionScheduler.cancelTasks(plugin);
         asyncScheduler.cancelTasks(plugin);
+        if (virtualThreads != null) {
+            virtualThreads.cancelTasks();
+        }
     }
 
     @Override
     public void cancelTasks(Plugin plugin) {
         globalRegionScheduler.cancelTasks(plugin);
         asyncScheduler.cancelTasks(plugin);
+        if (virtualThreads != null && plugin == this.plugin) {
+            virtualThreads.cancelTasks();
+        }
+    }
+
+    private static Consumer<ScheduledTask> consumer(Runnable runnable) {
+        Runnable contextual = LogContext.propagate(runnable);
+        return task -> contextual.run();
     }
 
     private long getOneIfNotPositive(long x) {
         return x <= 0 ? 1L : x;
     }
+
+    private static final class Group<T> {
+        private final Location location;
+        private final List<T> items = new ArrayList<>();
+
+        private Group(Location location) {
+            this.location = location;
+        }
+    }
 }
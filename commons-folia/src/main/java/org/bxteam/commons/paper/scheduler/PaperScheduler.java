@@ -3,14 +3,30 @@ package org.bxteam.commons.paper.scheduler;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
 import org.bxteam.commons.folia.scheduler.FoliaScheduler;
+import org.bxteam.commons.scheduler.RegionKey;
 
 public class PaperScheduler extends FoliaScheduler {
     public PaperScheduler(Plugin plugin) {
         super(plugin);
     }
 
+    /**
+     * Constructs a PaperScheduler.
+     *
+     * @param plugin         the plugin owning the scheduled tasks
+     * @param virtualThreads whether async tasks run on virtual threads, ignored before Java 21
+     */
+    public PaperScheduler(Plugin plugin, boolean virtualThreads) {
+        super(plugin, RegionKey.DEFAULT_SHIFT, virtualThreads);
+    }
+
     @Override
     public boolean isGlobalThread() {
         return Bukkit.getServer().isPrimaryThread();
     }
+
+    @Override
+    public boolean isRegionized() {
+        return false;
+    }
 }
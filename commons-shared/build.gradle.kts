@@ -2,6 +2,7 @@ plugins {
     `commons-java`
     `commons-publish`
     `commons-repositories`
+    `java-test-fixtures`
 }
 
 dependencies {
@@ -14,8 +15,15 @@ dependencies {
     testImplementation(platform(libs.junit.bom))
     testImplementation(libs.junit.jupiter)
     testRuntimeOnly(libs.junit.platform.launcher)
+
+    testFixturesImplementation(libs.gson)
 }
 
+// Test fixtures are shared with the tests and benchmarks only, not published.
+val javaComponent = components["java"] as AdhocComponentWithVariants
+javaComponent.withVariantsFromConfiguration(configurations["testFixturesApiElements"]) { skip() }
+javaComponent.withVariantsFromConfiguration(configurations["testFixturesRuntimeElements"]) { skip() }
+
 tasks {
     test {
         useJUnitPlatform()
@@ -1,13 +1,21 @@
 package org.bxteam.commons.logger;
 
 import org.bxteam.commons.logger.appender.Appender;
+import org.bxteam.commons.logger.dispatch.LogDispatcher;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Extended logger that provides convenient methods for logging messages at different levels.
+ * <p>
+ * Every method checks {@link #isEnabled(LogLevel)} before anything is allocated, so a call below the
+ * current level costs a single field read. Messages passed as a {@link Supplier} or as a template with
+ * {@code {}} anchors are only built when the level is enabled. If the last argument of a parameterized
+ * call is a {@link Throwable} without a matching anchor, it is logged as the entry's throwable.
+ * The properties of each entry start out as a copy of the current {@link LogContext}. Loggers routing
+ * only to garbage-free dispatchers format the message straight into a pre-allocated event instead.
  */
 public class ExtendedLogger extends Logger {
     /**
@@ -31,6 +39,19 @@ public class ExtendedLogger extends Logger {
         super(name, currentLevel, appenders, listeners);
     }
 
+    /**
+     * Constructs an ExtendedLogger that hands its entries to the specified dispatcher.
+     *
+     * @param name         the name of the logger
+     * @param currentLevel the current log level
+     * @param appenders    the list of appenders
+     * @param listeners    the list of log entry listeners
+     * @param dispatcher   the dispatcher delivering entries to the appenders
+     */
+    public ExtendedLogger(String name, LogLevel currentLevel, List<Appender> appenders, List<Function<LogEntry, Boolean>> listeners, LogDispatcher dispatcher) {
+        super(name, currentLevel, appenders, listeners, dispatcher);
+    }
+
     /**
      * Logs a message with the specified log level.
      *
@@ -38,17 +59,9 @@ public class ExtendedLogger extends Logger {
      * @param message  the message text
      */
     public void log(LogLevel logLevel, String message) {
-        LogEntry entry = new LogEntry(
-                this.name,
-                logLevel,
-                message,
-                System.currentTimeMillis(),
-                Thread.currentThread().getId(),
-                Thread.currentThread().getName(),
-                null,
-                new HashMap<>()
-        );
-        super.log(logLevel, entry, defaultAppenders);
+        if (isEnabled(logLevel)) {
+            logEntry(logLevel, message, null, null, null);
+        }
     }
 
     /**
@@ -59,17 +72,9 @@ public class ExtendedLogger extends Logger {
      * @param throwable the throwable to log
      */
     public void log(LogLevel logLevel, String message, Throwable throwable) {
-        LogEntry entry = new LogEntry(
-                this.name,
-                logLevel,
-                message,
-                System.currentTimeMillis(),
-                Thread.currentThread().getId(),
-                Thread.currentThread().getName(),
-                throwable,
-                new HashMap<>()
-        );
-        super.log(logLevel, entry, defaultAppenders);
+        if (isEnabled(logLevel)) {
+            logEntry(logLevel, message, throwable, null, null);
+        }
     }
 
     /**
@@ -79,17 +84,36 @@ public class ExtendedLogger extends Logger {
      * @param throwable the throwable to log
      */
     public void log(LogLevel logLevel, Throwable throwable) {
-        LogEntry entry = new LogEntry(
-                this.name,
-                logLevel,
-                throwable.getMessage(),
-                System.currentTimeMillis(),
-                Thread.currentThread().getId(),
-                Thread.currentThread().getName(),
-                throwable,
-                new HashMap<>()
-        );
-        super.log(logLevel, entry, defaultAppenders);
+        if (isEnabled(logLevel)) {
+            // A throwable without a message is described by its class name instead of "null".
+            String message = throwable.getMessage() != null ? throwable.getMessage() : throwable.toString();
+            logEntry(logLevel, message, throwable, null, null);
+        }
+    }
+
+    /**
+     * Logs a message that is only built if the log level is enabled.
+     *
+     * @param logLevel        the log level
+     * @param messageSupplier the supplier of the message text
+     */
+    public void log(LogLevel logLevel, Supplier<String> messageSupplier) {
+        if (isEnabled(logLevel)) {
+            logEntry(logLevel, messageSupplier.get(), null, null, null);
+        }
+    }
+
+    /**
+     * Logs a parameterized message. The template is only formatted if the log level is enabled.
+     *
+     * @param logLevel  the log level
+     * @param template  the message template with {@code {}} anchors
+     * @param arguments the arguments replacing the anchors
+     */
+    public void log(LogLevel logLevel, String template, Object... arguments) {
+        if (isEnabled(logLevel)) {
+            logFormatted(logLevel, template, arguments);
+        }
     }
 
     /**
@@ -101,6 +125,50 @@ public class ExtendedLogger extends Logger {
         log(LogLevel.DEBUG, message);
     }
 
+    /**
+     * Logs a message at the DEBUG level that is only built if DEBUG is enabled.
+     *
+     * @param messageSupplier the supplier of the message text
+     */
+    public void debug(Supplier<String> messageSupplier) {
+        log(LogLevel.DEBUG, messageSupplier);
+    }
+
+    /**
+     * Logs a parameterized message with one argument at the DEBUG level.
+     *
+     * @param template the message template with {@code {}} anchors
+     * @param argument the argument replacing the first anchor
+     */
+    public void debug(String template, Object argument) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            logFormatted(LogLevel.DEBUG, template, new Object[]{argument});
+        }
+    }
+
+    /**
+     * Logs a parameterized message with two arguments at the DEBUG level.
+     *
+     * @param template the message template with {@code {}} anchors
+     * @param first    the argument replacing the first anchor
+     * @param second   the argument replacing the second anchor
+     */
+    public void debug(String template, Object first, Object second) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            logFormatted(LogLevel.DEBUG, template, new Object[]{first, second});
+        }
+    }
+
+    /**
+     * Logs a parameterized message at the DEBUG level.
+     *
+     * @param template  the message template with {@code {}} anchors
+     * @param arguments the arguments replacing the anchors
+     */
+    public void debug(String template, Object... arguments) {
+        log(LogLevel.DEBUG, template, arguments);
+    }
+
     /**
      * Logs a message at the INFO level.
      *
@@ -110,6 +178,50 @@ public class ExtendedLogger extends Logger {
         log(LogLevel.INFO, message);
     }
 
+    /**
+     * Logs a message at the INFO level that is only built if INFO is enabled.
+     *
+     * @param messageSupplier the supplier of the message text
+     */
+    public void info(Supplier<String> messageSupplier) {
+        log(LogLevel.INFO, messageSupplier);
+    }
+
+    /**
+     * Logs a parameterized message with one argument at the INFO level.
+     *
+     * @param template the message template with {@code {}} anchors
+     * @param argument the argument replacing the first anchor
+     */
+    public void info(String template, Object argument) {
+        if (isEnabled(LogLevel.INFO)) {
+            logFormatted(LogLevel.INFO, template, new Object[]{argument});
+        }
+    }
+
+    /**
+     * Logs a parameterized message with two arguments at the INFO level.
+     *
+     * @param template the message template with {@code {}} anchors
+     * @param first    the argument replacing the first anchor
+     * @param second   the argument replacing the second anchor
+     */
+    public void info(String template, Object first, Object second) {
+        if (isEnabled(LogLevel.INFO)) {
+            logFormatted(LogLevel.INFO, template, new Object[]{first, second});
+        }
+    }
+
+    /**
+     * Logs a parameterized message at the INFO level.
+     *
+     * @param template  the message template with {@code {}} anchors
+     * @param arguments the arguments replacing the anchors
+     */
+    public void info(String template, Object... arguments) {
+        log(LogLevel.INFO, template, arguments);
+    }
+
     /**
      * Logs a message at the WARN level.
      *
@@ -128,6 +240,50 @@ public class ExtendedLogger extends Logger {
         log(LogLevel.WARN, throwable);
     }
 
+    /**
+     * Logs a message at the WARN level that is only built if WARN is enabled.
+     *
+     * @param messageSupplier the supplier of the message text
+     */
+    public void warn(Supplier<String> messageSupplier) {
+        log(LogLevel.WARN, messageSupplier);
+    }
+
+    /**
+     * Logs a parameterized message with one argument at the WARN level.
+     *
+     * @param template the message template with {@code {}} anchors
+     * @param argument the argument replacing the first anchor
+     */
+    public void warn(String template, Object argument) {
+        if (isEnabled(LogLevel.WARN)) {
+            logFormatted(LogLevel.WARN, template, new Object[]{argument});
+        }
+    }
+
+    /**
+     * Logs a parameterized message with two arguments at the WARN level.
+     *
+     * @param template the message template with {@code {}} anchors
+     * @param first    the argument replacing the first anchor
+     * @param second   the argument replacing the second anchor
+     */
+    public void warn(String template, Object first, Object second) {
+        if (isEnabled(LogLevel.WARN)) {
+            logFormatted(LogLevel.WARN, template, new Object[]{first, second});
+        }
+    }
+
+    /**
+     * Logs a parameterized message at the WARN level.
+     *
+     * @param template  the message template with {@code {}} anchors
+     * @param arguments the arguments replacing the anchors
+     */
+    public void warn(String template, Object... arguments) {
+        log(LogLevel.WARN, template, arguments);
+    }
+
     /**
      * Logs a message at the ERROR level.
      *
@@ -145,4 +301,63 @@ public class ExtendedLogger extends Logger {
     public void error(Throwable throwable) {
         log(LogLevel.ERROR, throwable);
     }
+
+    /**
+     * Logs a message at the ERROR level that is only built if ERROR is enabled.
+     *
+     * @param messageSupplier the supplier of the message text
+     */
+    public void error(Supplier<String> messageSupplier) {
+        log(LogLevel.ERROR, messageSupplier);
+    }
+
+    /**
+     * Logs a parameterized message with one argument at the ERROR level.
+     *
+     * @param template the message template with {@code {}} anchors
+     * @param argument the argument replacing the first anchor
+     */
+    public void error(String template, Object argument) {
+        if (isEnabled(LogLevel.ERROR)) {
+            logFormatted(LogLevel.ERROR, template, new Object[]{argument});
+        }
+    }
+
+    /**
+     * Logs a parameterized message with two arguments at the ERROR level.
+     *
+     * @param template the message template with {@code {}} anchors
+     * @param first    the argument replacing the first anchor
+     * @param second   the argument replacing the second anchor
+     */
+    public void error(String template, Object first, Object second) {
+        if (isEnabled(LogLevel.ERROR)) {
+            logFormatted(LogLevel.ERROR, template, new Object[]{first, second});
+        }
+    }
+
+    /**
+     * Logs a parameterized message at the ERROR level.
+     *
+     * @param template  the message template with {@code {}} anchors
+     * @param arguments the arguments replacing the anchors
+     */
+    public void error(String template, Object... arguments) {
+        log(LogLevel.ERROR, template, arguments);
+    }
+
+    private void logFormatted(LogLevel logLevel, String template, Object[] arguments) {
+        Throwable throwable = null;
+        if (arguments != null && arguments.length > 0 && arguments[arguments.length - 1] instanceof Throwable
+                && MessageFormatter.countAnchors(template) < arguments.length) {
+            throwable = (Throwable) arguments[arguments.length - 1];
+        }
+        logEntry(logLevel, null, throwable, template, arguments);
+    }
+
+    private void logEntry(LogLevel logLevel, String message, Throwable throwable, String template, Object[] arguments) {
+        if (!logInPlace(logLevel, message, template, arguments, throwable)) {
+            super.log(logLevel, createEntry(logLevel, message, template, arguments, throwable));
+        }
+    }
 }
@@ -0,0 +1,285 @@
+package org.bxteam.commons.logger;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+/**
+ * Immutable set of structured properties attached to the current thread and copied into every
+ * {@link LogEntry} an {@link ExtendedLogger} creates on it.
+ * <p>
+ * Each thread holds a reference to one snapshot. Changing the context replaces that reference with a
+ * new snapshot and never mutates a published one, so a snapshot can be captured when a task is
+ * scheduled and attached on whichever thread runs it, without locks:
+ * <pre>
+ * try (LogContext.Scope scope = LogContext.put("player", player.getName())) {
+ *     scheduler.runTaskAsynchronously(() -&gt; logger.info("Loading profile"));
+ * }
+ * </pre>
+ * The {@link org.bxteam.commons.scheduler.Scheduler} implementations capture the context when a task is
+ * scheduled and restore it around every run of the task.
+ */
+public final class LogContext {
+    private static final LogContext EMPTY = new LogContext(new String[0], new Object[0]);
+    private static final ThreadLocal<LogContext> CURRENT = new ThreadLocal<>();
+
+    private final String[] keys;
+    private final Object[] values;
+
+    private LogContext(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Returns the context attached to the current thread.
+     *
+     * @return the current context, empty if none is attached
+     */
+    public static LogContext current() {
+        LogContext context = CURRENT.get();
+        return context == null ? EMPTY : context;
+    }
+
+    /**
+     * Returns the context without properties.
+     *
+     * @return the empty context
+     */
+    public static LogContext empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Adds a property to the context of the current thread until the returned scope is closed.
+     *
+     * @param key   the property key
+     * @param value the property value, or null to remove the key
+     * @return the scope restoring the previous context when closed
+     */
+    public static Scope put(@NotNull String key, @Nullable Object value) {
+        return current().with(key, value).attach();
+    }
+
+    /**
+     * Wraps the task so that it runs with the context of the current thread.
+     *
+     * @param runnable the task
+     * @return the wrapped task, or the task itself if the current context is empty
+     */
+    public static Runnable propagate(@NotNull Runnable runnable) {
+        return current().wrap(runnable);
+    }
+
+    /**
+     * Wraps the task so that it runs with the context of the current thread.
+     *
+     * @param callable the task
+     * @param <T>      the result type
+     * @return the wrapped task, or the task itself if the current context is empty
+     */
+    public static <T> Callable<T> propagate(@NotNull Callable<T> callable) {
+        return current().wrap(callable);
+    }
+
+    /**
+     * Returns a context holding the properties of this one and the specified property.
+     *
+     * @param key   the property key
+     * @param value the property value, or null to remove the key
+     * @return the new context
+     */
+    public LogContext with(@NotNull String key, @Nullable Object value) {
+        Objects.requireNonNull(key, "key");
+        if (value == null) {
+            return without(key);
+        }
+        int index = indexOf(key);
+        if (index >= 0) {
+            Object[] newValues = values.clone();
+            newValues[index] = value;
+            return new LogContext(keys, newValues);
+        }
+        String[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+        Object[] newValues = Arrays.copyOf(values, values.length + 1);
+        newKeys[keys.length] = key;
+        newValues[values.length] = value;
+        return new LogContext(newKeys, newValues);
+    }
+
+    /**
+     * Returns a context holding the properties of this one except the specified key.
+     *
+     * @param key the property key
+     * @return the new context, or this context if it does not hold the key
+     */
+    public LogContext without(@NotNull String key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return this;
+        }
+        if (keys.length == 1) {
+            return EMPTY;
+        }
+        String[] newKeys = new String[keys.length - 1];
+        Object[] newValues = new Object[values.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(values, 0, newValues, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, newKeys.length - index);
+        System.arraycopy(values, index + 1, newValues, index, newValues.length - index);
+        return new LogContext(newKeys, newValues);
+    }
+
+    /**
+     * Returns the value of the specified property.
+     *
+     * @param key the property key
+     * @return the value, or null if the context does not hold the key
+     */
+    @Nullable
+    public Object get(@NotNull String key) {
+        int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    /**
+     * Returns the number of properties in this context.
+     *
+     * @return the number of properties
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns whether this context holds no properties.
+     *
+     * @return true if the context is empty
+     */
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Attaches this context to the current thread until the returned scope is closed.
+     *
+     * @return the scope restoring the previous context when closed
+     */
+    public Scope attach() {
+        LogContext previous = CURRENT.get();
+        set(this);
+        return new Scope(previous);
+    }
+
+    /**
+     * Wraps the task so that it runs with this context attached.
+     *
+     * @param runnable the task
+     * @return the wrapped task, or the task itself if this context is empty
+     */
+    public Runnable wrap(@NotNull Runnable runnable) {
+        if (isEmpty()) {
+            return runnable;
+        }
+        return () -> {
+            Scope scope = attach();
+            try {
+                runnable.run();
+            } finally {
+                scope.close();
+            }
+        };
+    }
+
+    /**
+     * Wraps the task so that it runs with this context attached.
+     *
+     * @param callable the task
+     * @param <T>      the result type
+     * @return the wrapped task, or the task itself if this context is empty
+     */
+    public <T> Callable<T> wrap(@NotNull Callable<T> callable) {
+        if (isEmpty()) {
+            return callable;
+        }
+        return () -> {
+            Scope scope = attach();
+            try {
+                return callable.call();
+            } finally {
+                scope.close();
+            }
+        };
+    }
+
+    /**
+     * Puts every property of this context into the map. A {@link LogProperties} that already has room for
+     * them does not allocate.
+     *
+     * @param properties the map to copy the properties into
+     */
+    public void copyTo(@NotNull Map<String, Object> properties) {
+        for (int i = 0; i < keys.length; i++) {
+            properties.put(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Creates the properties of a new log entry, holding the properties of this context.
+     *
+     * @return the new properties
+     */
+    LogProperties toProperties() {
+        return isEmpty() ? new LogProperties() : new LogProperties(keys, values);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(keys[i]).append('=').append(values[i]);
+        }
+        return builder.append('}').toString();
+    }
+
+    private int indexOf(String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void set(LogContext context) {
+        if (context == null || context == EMPTY) {
+            // Do not pin a value on pooled or server threads once the context is gone.
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+    }
+
+    /**
+     * Restores the context that was attached before it was opened.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final LogContext previous;
+
+        private Scope(LogContext previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            set(previous);
+        }
+    }
+}
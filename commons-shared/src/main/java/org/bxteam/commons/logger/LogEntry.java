@@ -7,6 +7,13 @@ import java.util.Map;
 
 /**
  * Represents a log entry containing all information about a logging event.
+ * <p>
+ * Entries created by a parameterized logging call keep the original message template and its
+ * arguments next to the formatted message, so that appenders and filters can group entries by template.
+ * Loggers create entries with an empty {@link LogProperties}, which allocates nothing until the first
+ * {@link #addProperty(String, Object)}.
+ * <p>
+ * Entries are the immutable form of a {@link LogEvent}; they can be kept after an appender call.
  */
 public record LogEntry(
         @NotNull String loggerName,
@@ -16,8 +23,27 @@ public record LogEntry(
         long threadID,
         @NotNull String threadName,
         @Nullable Throwable throwable,
-        @NotNull Map<String, Object> properties
-) {
+        @NotNull Map<String, Object> properties,
+        @Nullable String messageTemplate,
+        @Nullable Object[] arguments
+) implements LogEvent {
+    /**
+     * Constructs a LogEntry for a message that was not built from a template.
+     *
+     * @param loggerName the name of the logger
+     * @param logLevel   the log level
+     * @param message    the message text
+     * @param timestamp  the time of the event in milliseconds since the epoch
+     * @param threadID   the ID of the logging thread
+     * @param threadName the name of the logging thread
+     * @param throwable  the throwable to log, if any
+     * @param properties the properties of the entry
+     */
+    public LogEntry(@NotNull String loggerName, @NotNull LogLevel logLevel, @NotNull String message, long timestamp, long threadID,
+                    @NotNull String threadName, @Nullable Throwable throwable, @NotNull Map<String, Object> properties) {
+        this(loggerName, logLevel, message, timestamp, threadID, threadName, throwable, properties, null, null);
+    }
+
     /**
      * Adds a property to the log entry.
      *
@@ -29,4 +55,14 @@ public record LogEntry(
         this.properties.put(key, value);
         return this;
     }
+
+    /**
+     * Returns this entry, which is already immutable.
+     *
+     * @return this entry
+     */
+    @Override
+    public @NotNull LogEntry toLogEntry() {
+        return this;
+    }
 }
@@ -0,0 +1,92 @@
+package org.bxteam.commons.logger;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * Read-only view of a logging event, implemented by the immutable {@link LogEntry} and by the reusable
+ * events of a garbage-free {@link org.bxteam.commons.logger.dispatch.LogDispatcher}.
+ * <p>
+ * A reusable event is only valid for the duration of the appender call it is passed to; its message
+ * builder and properties are recycled afterwards. Use {@link #toLogEntry()} to keep an event.
+ */
+public interface LogEvent {
+    /**
+     * Returns the name of the logger.
+     *
+     * @return the logger name
+     */
+    @NotNull String loggerName();
+
+    /**
+     * Returns the log level.
+     *
+     * @return the log level
+     */
+    @NotNull LogLevel logLevel();
+
+    /**
+     * Returns the formatted message.
+     *
+     * @return the message text
+     */
+    @NotNull CharSequence message();
+
+    /**
+     * Returns the time of the event.
+     *
+     * @return the time in milliseconds since the epoch
+     */
+    long timestamp();
+
+    /**
+     * Returns the ID of the logging thread.
+     *
+     * @return the thread ID
+     */
+    long threadID();
+
+    /**
+     * Returns the name of the logging thread.
+     *
+     * @return the thread name
+     */
+    @NotNull String threadName();
+
+    /**
+     * Returns the logged throwable.
+     *
+     * @return the throwable, or null if none was logged
+     */
+    @Nullable Throwable throwable();
+
+    /**
+     * Returns the properties of the event.
+     *
+     * @return the properties
+     */
+    @NotNull Map<String, Object> properties();
+
+    /**
+     * Returns the template the message was formatted from.
+     *
+     * @return the template, or null if the message was not built from one or was formatted in place
+     */
+    @Nullable String messageTemplate();
+
+    /**
+     * Returns the arguments the message was formatted with.
+     *
+     * @return the arguments, or null if the message was not built from a template or was formatted in place
+     */
+    @Nullable Object[] arguments();
+
+    /**
+     * Returns an immutable entry with the content of this event, which may be kept after the appender call.
+     *
+     * @return this event if it is a {@link LogEntry}, a copy otherwise
+     */
+    @NotNull LogEntry toLogEntry();
+}
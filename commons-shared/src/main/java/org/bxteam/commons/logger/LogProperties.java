@@ -0,0 +1,225 @@
+package org.bxteam.commons.logger;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Small insertion-ordered map holding the properties of a {@link LogEntry}.
+ * <p>
+ * A new instance shares one empty array and allocates nothing else until the first property is
+ * added; it then grows as parallel key and value arrays, which is cheaper than hashing for the
+ * handful of keys an entry usually carries. Appenders can walk the properties by index with
+ * {@link #keyAt(int)} and {@link #valueAt(int)} without creating an iterator or a boxed entry per key.
+ * <p>
+ * Like the {@link java.util.HashMap} it replaces, this map is not thread-safe and does not permit
+ * {@code null} keys.
+ */
+public final class LogProperties extends AbstractMap<String, Object> {
+    private static final Object[] EMPTY = new Object[0];
+    private static final int INITIAL_CAPACITY = 4;
+
+    private Object[] keys = EMPTY;
+    private Object[] values = EMPTY;
+    private int size;
+
+    /**
+     * Constructs an empty LogProperties.
+     */
+    public LogProperties() {
+    }
+
+    /**
+     * Constructs a LogProperties holding the mappings of the specified map.
+     *
+     * @param properties the properties to copy
+     */
+    public LogProperties(@NotNull Map<String, ?> properties) {
+        if (properties instanceof LogProperties) {
+            LogProperties other = (LogProperties) properties;
+            if (other.size > 0) {
+                this.keys = Arrays.copyOf(other.keys, other.size);
+                this.values = Arrays.copyOf(other.values, other.size);
+                this.size = other.size;
+            }
+        } else {
+            putAll(properties);
+        }
+    }
+
+    /**
+     * Constructs a LogProperties holding copies of distinct keys and their values.
+     *
+     * @param keys   the keys, without duplicates
+     * @param values the values, in the order of the keys
+     */
+    LogProperties(Object[] keys, Object[] values) {
+        this.keys = Arrays.copyOf(keys, keys.length, Object[].class);
+        this.values = values.clone();
+        this.size = keys.length;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the key at the specified position, in insertion order.
+     *
+     * @param index the position, from 0 to {@link #size()} exclusive
+     * @return the key
+     */
+    public String keyAt(int index) {
+        Objects.checkIndex(index, size);
+        return (String) keys[index];
+    }
+
+    /**
+     * Returns the value at the specified position, in insertion order.
+     *
+     * @param index the position, from 0 to {@link #size()} exclusive
+     * @return the value
+     */
+    public Object valueAt(int index) {
+        Objects.checkIndex(index, size);
+        return values[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public Object put(@NotNull String key, Object value) {
+        Objects.requireNonNull(key, "key");
+        int index = indexOf(key);
+        if (index >= 0) {
+            Object previous = values[index];
+            values[index] = value;
+            return previous;
+        }
+
+        if (size == keys.length) {
+            int capacity = size == 0 ? INITIAL_CAPACITY : size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        Object previous = values[index];
+        removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept((String) keys[i], values[i]);
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new EntrySet();
+    }
+
+    private int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (key.equals(keys[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(keys, index + 1, keys, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+        }
+        size--;
+        keys[size] = null;
+        values[size] = null;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new Iterator<>() {
+                private int next;
+                private int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Map.Entry<String, Object> next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next++;
+                    return new SimpleEntry<>((String) keys[last], values[last]);
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    removeAt(last);
+                    next = last;
+                    last = -1;
+                }
+            };
+        }
+    }
+}
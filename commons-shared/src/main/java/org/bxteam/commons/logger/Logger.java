@@ -2,29 +2,60 @@ package org.bxteam.commons.logger;
 
 import org.bxteam.commons.logger.appender.Appender;
 import org.bxteam.commons.logger.appender.ConsoleAppender;
+import org.bxteam.commons.logger.dispatch.DispatcherPool;
+import org.bxteam.commons.logger.dispatch.LogDispatcher;
+import org.bxteam.commons.logger.dispatch.OverflowPolicy;
+import org.bxteam.commons.logger.metrics.DispatcherMetrics;
+import org.bxteam.commons.logger.metrics.LoggerMetrics;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.Flushable;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 /**
  * A simple asynchronous logger that supports multiple appenders and listeners.
+ * <p>
+ * Appenders are delivered to by the logger's dispatcher unless they are added with their own
+ * {@link LogDispatcher} or {@link DispatcherPool}. Every dispatcher has its own queue and consumer
+ * thread, so a slow appender routed to a separate dispatcher cannot delay the others.
+ * <p>
+ * Loggers obtained from {@link LoggerFactory} form a hierarchy along their dot-separated names. A logger
+ * without a level of its own inherits its parent's, and entries also go to the appenders of its ancestors
+ * unless it is not {@link #setAdditive(boolean) additive}. The inherited level and appenders are resolved
+ * whenever the hierarchy changes, so logging still reads a single volatile field for each.
+ * <p>
+ * Appenders and listeners are kept in immutable lists that are replaced as a whole on every change.
+ * Logging iterates whichever snapshot it read without locks, so appenders and listeners can be added,
+ * removed or replaced at runtime, for example by a reload command, while other threads are logging.
+ * <p>
+ * When every appender is routed through a garbage-free {@link LogDispatcher} and no listener is registered,
+ * {@link #logInPlace} fills the dispatchers' pre-allocated events instead of creating a {@link LogEntry}.
  */
 public class Logger {
+    private static final Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(5L);
+    private static final Object HIERARCHY_LOCK = new Object();
+    private static final LogDispatcher DEFAULT_DISPATCHER = new LogDispatcher("Commons-Logger", LogDispatcher.DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
     private static final Logger GLOBAL_LOGGER = new Logger("Commons-Global");
-    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "Commons-Logger");
-        t.setDaemon(true);
-        return t;
-    });
 
     protected final String name;
-    protected final List<Appender> defaultAppenders;
-    protected final List<Function<LogEntry, Boolean>> listeners;
-    protected LogLevel currentLevel;
+    protected volatile List<Appender> defaultAppenders;
+    protected volatile List<Function<LogEntry, Boolean>> listeners;
+    protected final LogDispatcher dispatcher;
+    protected volatile LogLevel currentLevel;
+    private final LongAdder filteredEntries = new LongAdder();
+    private final List<Logger> children = new ArrayList<>();
+    private LogLevel configuredLevel;
+    private Logger parent;
+    private boolean additive = true;
+    private Route[] ownRoutes = new Route[0];
+    private volatile Route[] routes = new Route[0];
 
     /**
      * Constructs a Logger with the specified name.
@@ -35,9 +66,11 @@ public class Logger {
     public Logger(String name) {
         this.name = name;
         this.currentLevel = LogLevel.INFO;
-        this.defaultAppenders = new ArrayList<>();
-        this.defaultAppenders.add(new ConsoleAppender());
-        this.listeners = new ArrayList<>();
+        this.configuredLevel = LogLevel.INFO;
+        this.defaultAppenders = List.of();
+        this.listeners = List.of();
+        this.dispatcher = DEFAULT_DISPATCHER;
+        route(new ConsoleAppender(), DEFAULT_DISPATCHER);
     }
 
     /**
@@ -49,10 +82,28 @@ public class Logger {
      * @param listeners    the list of log entry listeners
      */
     public Logger(String name, LogLevel currentLevel, List<Appender> appenders, List<Function<LogEntry, Boolean>> listeners) {
+        this(name, currentLevel, appenders, listeners, DEFAULT_DISPATCHER);
+    }
+
+    /**
+     * Constructs a Logger that hands its entries to the specified dispatcher.
+     *
+     * @param name         the name of the logger
+     * @param currentLevel the current log level
+     * @param appenders    the list of appenders
+     * @param listeners    the list of log entry listeners
+     * @param dispatcher   the dispatcher delivering entries to the appenders
+     */
+    public Logger(String name, LogLevel currentLevel, List<Appender> appenders, List<Function<LogEntry, Boolean>> listeners, LogDispatcher dispatcher) {
         this.name = name;
         this.currentLevel = currentLevel;
-        this.defaultAppenders = new ArrayList<>(appenders);
-        this.listeners = new ArrayList<>(listeners);
+        this.configuredLevel = currentLevel;
+        this.defaultAppenders = List.of();
+        this.listeners = List.copyOf(listeners);
+        this.dispatcher = dispatcher;
+        for (Appender appender : appenders) {
+            route(appender, dispatcher);
+        }
     }
 
     /**
@@ -64,33 +115,139 @@ public class Logger {
         return GLOBAL_LOGGER;
     }
 
+    /**
+     * Returns the dispatcher shared by all loggers that were not given their own.
+     *
+     * @return the default LogDispatcher
+     */
+    public static LogDispatcher getDefaultDispatcher() {
+        return DEFAULT_DISPATCHER;
+    }
+
+    /**
+     * Logs the provided log entry to the appenders of this logger, each through the dispatcher it was added with.
+     * Entries below the current log level are discarded before the listeners run.
+     * If any listener returns false, the logging is aborted.
+     *
+     * @param logLevel the log level
+     * @param logEntry the log entry to log
+     */
+    public void log(LogLevel logLevel, LogEntry logEntry) {
+        if (!accept(logLevel, logEntry)) {
+            return;
+        }
+        for (Route route : routes) {
+            route.dispatcher().dispatch(logEntry, route.appenders());
+        }
+    }
+
     /**
      * Logs the provided log entry using the specified log level and appenders.
-     * The log entry is first processed by the listeners. If any listener returns false,
+     * Entries below the current log level are discarded before the listeners run.
+     * The log entry is then processed by the listeners. If any listener returns false,
      * the logging is aborted.
      *
      * @param logLevel  the log level
      * @param logEntry  the log entry to log
-     * @param appenders the list of appenders to use
+     * @param appenders the list of appenders to use, all of them delivered to by this logger's dispatcher
      */
     public void log(LogLevel logLevel, LogEntry logEntry, List<Appender> appenders) {
-        for (Function<LogEntry, Boolean> listener : listeners) {
-            if (!listener.apply(logEntry)) {
-                return;
-            }
+        if (accept(logLevel, logEntry)) {
+            dispatcher.dispatch(logEntry, appenders);
         }
-        if (logLevel.ordinal() < currentLevel.ordinal()) {
-            return;
+    }
+
+    /**
+     * Logs an entry without creating a {@link LogEntry}, by filling the pre-allocated events of the
+     * garbage-free dispatchers this logger routes to. Either the message or the template is used.
+     * <p>
+     * Returns false without logging anything when a listener is registered or an appender is routed through a
+     * dispatcher that is not garbage-free, since both need a {@link LogEntry}. A dispatcher that cannot take
+     * the entry in place, for example after a shutdown, is given a {@link LogEntry} instead.
+     *
+     * @param logLevel  the log level
+     * @param message   the message text, or null to format the template
+     * @param template  the message template, used when the message is null
+     * @param arguments the template arguments
+     * @param throwable the throwable to log, if any
+     * @return true if the entry was handled
+     */
+    protected boolean logInPlace(LogLevel logLevel, @Nullable String message, @Nullable String template, @Nullable Object[] arguments, @Nullable Throwable throwable) {
+        if (!isEnabled(logLevel)) {
+            return true;
         }
-        executor.submit(() -> {
-            try {
-                for (Appender appender : appenders) {
-                    appender.append(logEntry);
+        if (!listeners.isEmpty()) {
+            return false;
+        }
+        Route[] current = routes;
+        for (Route route : current) {
+            if (!route.dispatcher().isGarbageFree()) {
+                return false;
+            }
+        }
+
+        LogEntry fallback = null;
+        for (Route route : current) {
+            if (!route.dispatcher().dispatchInPlace(name, logLevel, message, template, arguments, throwable, route.appenders())) {
+                if (fallback == null) {
+                    fallback = createEntry(logLevel, message, template, arguments, throwable);
                 }
-            } catch (Exception e) {
-                e.printStackTrace();
+                route.dispatcher().dispatch(fallback, route.appenders());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a log entry on the calling thread, holding the properties of the current {@link LogContext}.
+     * Either the message or the template is used.
+     *
+     * @param logLevel  the log level
+     * @param message   the message text, or null to format the template
+     * @param template  the message template, used when the message is null
+     * @param arguments the template arguments
+     * @param throwable the throwable to log, if any
+     * @return the new entry
+     */
+    protected LogEntry createEntry(LogLevel logLevel, @Nullable String message, @Nullable String template, @Nullable Object[] arguments, @Nullable Throwable throwable) {
+        Thread thread = Thread.currentThread();
+        return new LogEntry(
+                this.name,
+                logLevel,
+                message == null && template != null ? MessageFormatter.format(template, arguments) : message,
+                System.currentTimeMillis(),
+                thread.getId(),
+                thread.getName(),
+                throwable,
+                LogContext.current().toProperties(),
+                template,
+                arguments
+        );
+    }
+
+    /**
+     * Checks whether entries at the specified log level would be logged.
+     * Callers building expensive messages can use this to skip the work entirely.
+     *
+     * @param logLevel the log level to check
+     * @return true if the level is at or above the current log level
+     */
+    public boolean isEnabled(LogLevel logLevel) {
+        return logLevel.ordinal() >= currentLevel.ordinal();
+    }
+
+    private boolean accept(LogLevel logLevel, LogEntry logEntry) {
+        if (!isEnabled(logLevel)) {
+            return false;
+        }
+        List<Function<LogEntry, Boolean>> current = listeners;
+        for (int i = 0; i < current.size(); i++) {
+            if (!current.get(i).apply(logEntry)) {
+                filteredEntries.increment();
+                return false;
             }
-        });
+        }
+        return true;
     }
 
     /**
@@ -103,12 +260,89 @@ public class Logger {
     }
 
     /**
-     * Adds a new appender.
+     * Adds a new appender delivered to by this logger's dispatcher.
      *
      * @param appender the appender to add
      */
     public void addAppender(Appender appender) {
-        this.defaultAppenders.add(appender);
+        addAppender(appender, dispatcher);
+    }
+
+    /**
+     * Adds a new appender delivered to by the specified dispatcher.
+     * Appenders added with the same dispatcher share its queue and consumer thread.
+     *
+     * @param appender   the appender to add
+     * @param dispatcher the dispatcher delivering entries to the appender
+     */
+    public void addAppender(Appender appender, LogDispatcher dispatcher) {
+        route(appender, dispatcher);
+    }
+
+    /**
+     * Adds a new appender delivered to by the dispatcher of the pool it is pinned to.
+     *
+     * @param appender the appender to add
+     * @param pool     the pool choosing the dispatcher for the appender
+     */
+    public void addAppender(Appender appender, DispatcherPool pool) {
+        route(appender, pool.dispatcherFor(appender));
+    }
+
+    private void route(Appender appender, LogDispatcher dispatcher) {
+        synchronized (HIERARCHY_LOCK) {
+            this.defaultAppenders = with(defaultAppenders, appender);
+            this.ownRoutes = merge(ownRoutes, dispatcher, List.of(appender));
+            refresh();
+        }
+    }
+
+    /**
+     * Removes an appender from this logger. Entries already queued may still reach it,
+     * so it should only be closed once its dispatcher has drained them.
+     *
+     * @param appender the appender to remove
+     * @return true if the appender belonged to this logger
+     */
+    public boolean removeAppender(Appender appender) {
+        return replaceAppender(appender, null);
+    }
+
+    /**
+     * Atomically replaces an appender with another one that is delivered to by the same dispatcher.
+     * Entries logged after this call go to the replacement only; none are lost in between.
+     *
+     * @param appender    the appender to replace
+     * @param replacement the new appender, or null to remove the appender
+     * @return true if the appender belonged to this logger
+     */
+    public boolean replaceAppender(Appender appender, @Nullable Appender replacement) {
+        synchronized (HIERARCHY_LOCK) {
+            if (!defaultAppenders.contains(appender)) {
+                return false;
+            }
+            List<Appender> appenders = new ArrayList<>(defaultAppenders.size());
+            for (Appender current : defaultAppenders) {
+                if (current != appender) {
+                    appenders.add(current);
+                } else if (replacement != null) {
+                    appenders.add(replacement);
+                }
+            }
+            this.defaultAppenders = List.copyOf(appenders);
+            this.ownRoutes = replace(ownRoutes, appender, replacement);
+            refresh();
+            return true;
+        }
+    }
+
+    /**
+     * Returns the appenders added to this logger, not including inherited ones.
+     *
+     * @return an immutable snapshot of the appenders
+     */
+    public List<Appender> getAppenders() {
+        return defaultAppenders;
     }
 
     /**
@@ -117,28 +351,338 @@ public class Logger {
      * @param listener the log entry listener
      */
     public void addListener(Function<LogEntry, Boolean> listener) {
-        this.listeners.add(listener);
+        synchronized (HIERARCHY_LOCK) {
+            this.listeners = with(listeners, listener);
+        }
     }
 
     /**
-     * Sets the current log level.
+     * Removes a listener.
      *
-     * @param currentLevel the new log level
+     * @param listener the log entry listener to remove
+     * @return true if the listener belonged to this logger
      */
-    public void setCurrentLevel(LogLevel currentLevel) {
-        this.currentLevel = currentLevel;
+    public boolean removeListener(Function<LogEntry, Boolean> listener) {
+        synchronized (HIERARCHY_LOCK) {
+            List<Function<LogEntry, Boolean>> updated = new ArrayList<>(listeners);
+            if (!updated.remove(listener)) {
+                return false;
+            }
+            this.listeners = List.copyOf(updated);
+            return true;
+        }
     }
 
-    static {
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            executor.shutdown();
+    /**
+     * Returns the listeners of this logger.
+     *
+     * @return an immutable snapshot of the listeners
+     */
+    public List<Function<LogEntry, Boolean>> getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Returns the dispatcher used by this logger.
+     *
+     * @return the LogDispatcher
+     */
+    public LogDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Waits until every entry logged so far has been delivered and the appenders it went to flushed,
+     * for at most five seconds.
+     *
+     * @return true if everything was flushed in time
+     */
+    public boolean flush() {
+        return flush(DEFAULT_SHUTDOWN_TIMEOUT);
+    }
+
+    /**
+     * Waits until every entry logged so far has been delivered and the appenders it went to flushed.
+     * Listeners implementing {@link Flushable} are flushed first, so entries they hold back, such as
+     * the summary of a {@link org.bxteam.commons.logger.filter.DeduplicatingFilter}, are logged and delivered as well.
+     *
+     * @param timeout the maximum time to wait
+     * @return true if everything was flushed in time
+     */
+    public boolean flush(Duration timeout) {
+        flushListeners();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        boolean flushed = true;
+        for (Route route : routes) {
+            flushed &= route.dispatcher().flush(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        return flushed;
+    }
+
+    /**
+     * Detaches the appenders of this logger, drains the entries already queued for them and closes them.
+     * Call it when a plugin is disabled so that no writer stays open across a reload. Inherited appenders
+     * are left alone, and the logger keeps working with them if it is used again.
+     * <p>
+     * The timeout bounds the whole call. The appenders are closed with {@link Appender#close(Duration)} and
+     * what is left of it once the queues are drained, so an appender finishing work in the background, such
+     * as a {@link org.bxteam.commons.logger.appender.RollingFileAppender} compressing archives, abandons it
+     * rather than waiting past the deadline.
+     * <p>
+     * The returned count covers entries still queued when the timeout expired plus the entries the dispatchers
+     * dropped on their way to the detached appenders. Drops of entries meant only for other appenders of a
+     * shared dispatcher are not included.
+     *
+     * @param timeout the maximum time to wait for queued entries and closing appenders
+     * @return the number of entries that were lost
+     */
+    public long shutdown(Duration timeout) {
+        flushListeners();
+        List<Appender> appenders;
+        Route[] detached;
+        synchronized (HIERARCHY_LOCK) {
+            appenders = defaultAppenders;
+            detached = ownRoutes;
+            this.defaultAppenders = List.of();
+            this.ownRoutes = new Route[0];
+            refresh();
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long lost = 0L;
+        for (Route route : detached) {
+            LogDispatcher routeDispatcher = route.dispatcher();
+            if (!routeDispatcher.flush(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                lost += routeDispatcher.getQueueSize();
+            }
+            long dropped = 0L;
+            for (Appender appender : route.appenders()) {
+                // An entry is dropped for every appender of its route at once, so the maximum counts it once.
+                dropped = Math.max(dropped, routeDispatcher.getDroppedCount(appender));
+            }
+            lost += dropped;
+        }
+
+        for (Appender appender : appenders) {
             try {
-                if (!executor.awaitTermination(5L, TimeUnit.SECONDS)) {
-                    executor.shutdownNow();
+                appender.close(Duration.ofNanos(Math.max(0L, deadline - System.nanoTime())));
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        return lost;
+    }
+
+    private void flushListeners() {
+        for (Function<LogEntry, Boolean> listener : listeners) {
+            if (listener instanceof Flushable) {
+                try {
+                    ((Flushable) listener).flush();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the consumer thread of the default dispatcher after draining it. Entries logged afterwards
+     * are delivered on the logging thread. Plugins that shade this library should call it when disabled,
+     * after shutting down their loggers, so the thread does not outlive their class loader.
+     *
+     * @param timeout the maximum time to wait for queued entries
+     * @return true if the queue was fully drained within the timeout
+     */
+    public static boolean shutdownDefaultDispatcher(Duration timeout) {
+        return DEFAULT_DISPATCHER.shutdown(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops the consumer threads of every dispatcher that is still running, the default one as well as
+     * custom {@link LogDispatcher}s and {@link DispatcherPool}s, after draining them. Runs from a JVM
+     * shutdown hook, so entries queued when the server stops still reach their appenders.
+     *
+     * @param timeout the maximum time to wait for queued entries, shared by all dispatchers
+     * @return true if every queue was fully drained within the timeout
+     */
+    public static boolean shutdownAllDispatchers(Duration timeout) {
+        return LogDispatcher.shutdownAll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of entries rejected by this logger's listeners.
+     *
+     * @return the filtered entry count
+     */
+    public long getFilteredCount() {
+        return filteredEntries.sum();
+    }
+
+    /**
+     * Captures the metrics of this logger and of every dispatcher it routes entries to.
+     * Useful to poll from a command or an exporter during a lag spike.
+     *
+     * @return a snapshot of the logger metrics
+     */
+    public LoggerMetrics getMetrics() {
+        Route[] current = routes;
+        List<DispatcherMetrics> dispatchers = new ArrayList<>(current.length);
+        for (Route route : current) {
+            dispatchers.add(route.dispatcher().getMetrics());
+        }
+        return new LoggerMetrics(name, getFilteredCount(), List.copyOf(dispatchers));
+    }
+
+    /**
+     * Sets the log level of this logger. Loggers below it in the hierarchy that have no level
+     * of their own pick up the change immediately.
+     *
+     * @param currentLevel the new log level, or null to inherit the parent's level
+     */
+    public void setCurrentLevel(@Nullable LogLevel currentLevel) {
+        synchronized (HIERARCHY_LOCK) {
+            this.configuredLevel = currentLevel;
+            refresh();
+        }
+    }
+
+    /**
+     * Returns the effective log level, which may be inherited from a parent logger.
+     *
+     * @return the current log level
+     */
+    public LogLevel getCurrentLevel() {
+        return currentLevel;
+    }
+
+    /**
+     * Sets whether entries are also delivered to the appenders of the parent loggers.
+     *
+     * @param additive true to inherit the parent's appenders, which is the default
+     */
+    public void setAdditive(boolean additive) {
+        synchronized (HIERARCHY_LOCK) {
+            this.additive = additive;
+            refresh();
+        }
+    }
+
+    /**
+     * Returns whether entries are also delivered to the appenders of the parent loggers.
+     *
+     * @return true if the parent's appenders are inherited
+     */
+    public boolean isAdditive() {
+        synchronized (HIERARCHY_LOCK) {
+            return additive;
+        }
+    }
+
+    /**
+     * Returns the parent of this logger in the hierarchy.
+     *
+     * @return the parent Logger, or null if this logger is standalone or the root
+     */
+    public @Nullable Logger getParent() {
+        synchronized (HIERARCHY_LOCK) {
+            return parent;
+        }
+    }
+
+    /**
+     * Places this logger below the specified parent, dropping its own level so that the parent's is inherited.
+     *
+     * @param parent the parent logger
+     */
+    void attachTo(Logger parent) {
+        synchronized (HIERARCHY_LOCK) {
+            if (this.parent != null) {
+                this.parent.children.remove(this);
+            }
+            this.parent = parent;
+            this.configuredLevel = null;
+            parent.children.add(this);
+            refresh();
+        }
+    }
+
+    /**
+     * Resolves the effective level and appenders of this logger and of every logger below it.
+     * Must be called while holding the hierarchy lock.
+     */
+    private void refresh() {
+        LogLevel level = configuredLevel;
+        if (level == null) {
+            level = parent != null ? parent.currentLevel : LogLevel.INFO;
+        }
+        Route[] effective = ownRoutes;
+        if (additive && parent != null) {
+            for (Route route : parent.routes) {
+                effective = merge(effective, route.dispatcher(), route.appenders());
+            }
+        }
+        this.currentLevel = level;
+        this.routes = effective;
+        for (Logger child : children) {
+            child.refresh();
+        }
+    }
+
+    private static Route[] replace(Route[] current, Appender appender, @Nullable Appender replacement) {
+        List<Route> updated = new ArrayList<>(current.length);
+        for (Route route : current) {
+            List<Appender> appenders = new ArrayList<>(route.appenders().size());
+            for (Appender existing : route.appenders()) {
+                if (existing != appender) {
+                    appenders.add(existing);
+                } else if (replacement != null) {
+                    appenders.add(replacement);
                 }
-            } catch (InterruptedException e) {
-                executor.shutdownNow();
             }
-        }));
+            if (!appenders.isEmpty()) {
+                updated.add(new Route(route.dispatcher(), List.copyOf(appenders)));
+            }
+        }
+        return updated.toArray(new Route[0]);
+    }
+
+    private static <T> List<T> with(List<T> current, T element) {
+        List<T> updated = new ArrayList<>(current.size() + 1);
+        updated.addAll(current);
+        updated.add(element);
+        return List.copyOf(updated);
+    }
+
+    private static Route[] merge(Route[] current, LogDispatcher dispatcher, List<Appender> appenders) {
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].dispatcher() == dispatcher) {
+                List<Appender> combined = new ArrayList<>(current[i].appenders());
+                for (Appender appender : appenders) {
+                    if (!combined.contains(appender)) {
+                        combined.add(appender);
+                    }
+                }
+                if (combined.size() == current[i].appenders().size()) {
+                    return current;
+                }
+                Route[] updated = current.clone();
+                updated[i] = new Route(dispatcher, List.copyOf(combined));
+                return updated;
+            }
+        }
+        Route[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = new Route(dispatcher, List.copyOf(appenders));
+        return updated;
+    }
+
+    /**
+     * The appenders of a logger that are delivered to by the same dispatcher.
+     * The list is immutable and reused, so the dispatcher can batch consecutive entries by its identity.
+     */
+    private record Route(LogDispatcher dispatcher, List<Appender> appenders) {
+    }
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> shutdownAllDispatchers(DEFAULT_SHUTDOWN_TIMEOUT)));
     }
 }
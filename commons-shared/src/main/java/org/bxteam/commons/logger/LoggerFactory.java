@@ -0,0 +1,88 @@
+package org.bxteam.commons.logger;
+
+import org.bxteam.commons.logger.appender.ConsoleAppender;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of named loggers arranged in a hierarchy along their dot-separated names.
+ * <p>
+ * {@code getLogger("economy.bank")} returns the same instance on every call; its parent is
+ * {@code economy}, whose parent is the root logger. New loggers have no level or appenders of their
+ * own: they inherit both from their ancestors, so raising {@code economy} to DEBUG at runtime affects
+ * every logger below it. The root logger writes to a {@link ConsoleAppender} at the INFO level.
+ */
+public final class LoggerFactory {
+    /**
+     * The name of the root logger.
+     */
+    public static final String ROOT_LOGGER_NAME = "";
+
+    private static final Map<String, ExtendedLogger> LOGGERS = new ConcurrentHashMap<>();
+    private static final ExtendedLogger ROOT_LOGGER = new ExtendedLogger(ROOT_LOGGER_NAME, LogLevel.INFO, List.of(new ConsoleAppender()), List.of());
+
+    static {
+        LOGGERS.put(ROOT_LOGGER_NAME, ROOT_LOGGER);
+    }
+
+    private LoggerFactory() {
+    }
+
+    /**
+     * Returns the root logger, the ancestor of every logger in the registry.
+     *
+     * @return the root ExtendedLogger
+     */
+    public static ExtendedLogger getRootLogger() {
+        return ROOT_LOGGER;
+    }
+
+    /**
+     * Returns the logger with the specified name, creating it and its missing ancestors on first use.
+     *
+     * @param name the dot-separated name of the logger
+     * @return the cached ExtendedLogger
+     */
+    public static ExtendedLogger getLogger(@NotNull String name) {
+        ExtendedLogger logger = LOGGERS.get(name);
+        if (logger != null) {
+            return logger;
+        }
+
+        synchronized (LOGGERS) {
+            logger = LOGGERS.get(name);
+            if (logger == null) {
+                int separator = name.lastIndexOf('.');
+                ExtendedLogger parent = getLogger(separator < 0 ? ROOT_LOGGER_NAME : name.substring(0, separator));
+                logger = new ExtendedLogger(name, LogLevel.INFO, List.of(), List.of());
+                logger.attachTo(parent);
+                LOGGERS.put(name, logger);
+            }
+            return logger;
+        }
+    }
+
+    /**
+     * Returns the logger named after the fully qualified name of the class.
+     *
+     * @param type the class the logger is for
+     * @return the cached ExtendedLogger
+     */
+    public static ExtendedLogger getLogger(@NotNull Class<?> type) {
+        return getLogger(type.getName());
+    }
+
+    /**
+     * Sets the level of the named logger and of every logger below it that has no level of its own.
+     *
+     * @param name  the dot-separated name of the logger
+     * @param level the new log level, or null to inherit the parent's level
+     */
+    public static void setLevel(@NotNull String name, @Nullable LogLevel level) {
+        getLogger(name).setCurrentLevel(level);
+    }
+}
@@ -0,0 +1,83 @@
+package org.bxteam.commons.logger;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Formats parameterized messages by replacing each {@code {}} anchor with the next argument.
+ * Surplus anchors are left untouched and surplus arguments are ignored.
+ */
+public final class MessageFormatter {
+    private MessageFormatter() {
+    }
+
+    /**
+     * Formats the template with the specified arguments.
+     *
+     * @param template  the message template with {@code {}} anchors
+     * @param arguments the arguments, may be null
+     * @return the formatted message
+     */
+    public static String format(@NotNull String template, @Nullable Object[] arguments) {
+        if (arguments == null || arguments.length == 0 || template.indexOf('{') < 0) {
+            return template;
+        }
+        StringBuilder builder = new StringBuilder(template.length() + arguments.length * 16);
+        formatTo(template, arguments, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Appends the template formatted with the specified arguments to the builder.
+     *
+     * @param template  the message template with {@code {}} anchors
+     * @param arguments the arguments, may be null
+     * @param out       the builder to append to
+     */
+    public static void formatTo(@NotNull String template, @Nullable Object[] arguments, @NotNull StringBuilder out) {
+        int argumentCount = arguments == null ? 0 : arguments.length;
+        int argumentIndex = 0;
+        int index = 0;
+        while (argumentIndex < argumentCount) {
+            int anchor = template.indexOf("{}", index);
+            if (anchor < 0) {
+                break;
+            }
+            out.append(template, index, anchor);
+            appendArgument(arguments[argumentIndex++], out);
+            index = anchor + 2;
+        }
+        out.append(template, index, template.length());
+    }
+
+    /**
+     * Returns the number of {@code {}} anchors in the template.
+     *
+     * @param template the message template
+     * @return the anchor count
+     */
+    public static int countAnchors(@NotNull String template) {
+        int count = 0;
+        for (int index = template.indexOf("{}"); index >= 0; index = template.indexOf("{}", index + 2)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static void appendArgument(Object argument, StringBuilder out) {
+        if (argument instanceof Object[]) {
+            out.append(Arrays.deepToString((Object[]) argument));
+        } else if (argument instanceof CharSequence) {
+            out.append((CharSequence) argument);
+        } else if (argument instanceof Integer || argument instanceof Long || argument instanceof Short || argument instanceof Byte) {
+            // Appending the primitive avoids the intermediate string of toString().
+            out.append(((Number) argument).longValue());
+        } else if (argument instanceof Boolean) {
+            out.append(((Boolean) argument).booleanValue());
+        } else {
+            out.append(argument);
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package org.bxteam.commons.logger.appender;
 
 import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Interface for appender that process log entries.
@@ -13,8 +18,63 @@ public interface Appender {
      */
     void append(LogEntry entry);
 
+    /**
+     * Appends a batch of log entries in the order they were logged.
+     * The list is reused by the caller and must not be retained after this method returns.
+     * <p>
+     * The default implementation calls {@link #append(LogEntry)} for every entry. Implementations
+     * writing to a stream should override it to write the whole batch with a single flush.
+     *
+     * @param entries the log entries to append
+     */
+    default void appendBatch(List<LogEntry> entries) {
+        for (LogEntry entry : entries) {
+            append(entry);
+        }
+    }
+
+    /**
+     * Appends a batch of events from a garbage-free dispatcher in the order they were logged.
+     * The events are recycled after this method returns and must not be retained; call
+     * {@link LogEvent#toLogEntry()} to keep one.
+     * <p>
+     * The default implementation converts every event to a {@link LogEntry} and calls
+     * {@link #appendBatch(List)}. Implementations that only read the events should override it to
+     * avoid the copies.
+     *
+     * @param events the events to append
+     */
+    default void appendEvents(List<? extends LogEvent> events) {
+        List<LogEntry> entries = new ArrayList<>(events.size());
+        for (LogEvent event : events) {
+            entries.add(event.toLogEntry());
+        }
+        appendBatch(entries);
+    }
+
+    /**
+     * Writes out any output buffered by the appender.
+     * Called by the dispatcher whenever its queue runs empty. The default implementation does nothing.
+     */
+    default void flush() {
+        // Nothing buffered by default.
+    }
+
     /**
      * Closes the appender and releases any resources.
      */
     void close();
+
+    /**
+     * Closes the appender, waiting at most the timeout for work it finishes in the background. Work still
+     * pending when the timeout expires is abandoned. Called by {@link org.bxteam.commons.logger.Logger#shutdown(Duration)}
+     * with what is left of its timeout.
+     * <p>
+     * The default implementation calls {@link #close()}. Implementations whose close waits should override it.
+     *
+     * @param timeout the maximum time to wait
+     */
+    default void close(Duration timeout) {
+        close();
+    }
 }
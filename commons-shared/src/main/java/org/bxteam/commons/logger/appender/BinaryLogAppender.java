@@ -0,0 +1,435 @@
+package org.bxteam.commons.logger.appender;
+
+import org.bxteam.commons.logger.ExtendedLogger;
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogEvent;
+import org.bxteam.commons.logger.LogProperties;
+import org.bxteam.commons.logger.LoggerFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Appender that writes log entries in a compact binary format into memory-mapped segment files.
+ * <p>
+ * Each segment is created at its full size and mapped into memory, so appending an entry is a copy into
+ * the page cache without a system call. Logger names, thread names, message templates, property keys and
+ * stack frames are interned per segment and written once; entries refer to them by id. Entries logged with
+ * a template store the template id and their arguments instead of the formatted message, which the decoder
+ * rebuilds. When a segment is full, the next one is created as {@code <name>-<n><extension>} next to the
+ * configured path; existing segments are never overwritten. See {@link BinaryLogFormat} for the layout and
+ * {@link BinaryLogDecoder} to turn segments back into text.
+ * <p>
+ * Written data survives a crash of the JVM, as it lives in the operating system's page cache; the segment
+ * is forced to disk when it is full and when the appender is closed.
+ * <p>
+ * An entry that cannot be written, because it is larger than a segment or because of an I/O failure, is
+ * reported through the appender's logger and counted by {@link #getDroppedCount()}; the entries after it
+ * are still written.
+ */
+public class BinaryLogAppender implements Appender {
+    /**
+     * The default size of a segment file in bytes.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final ExtendedLogger logger = LoggerFactory.getLogger(BinaryLogAppender.class);
+    private final Path directory;
+    private final String baseName;
+    private final String extension;
+    private final int segmentSize;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final List<String> stringOrder = new ArrayList<>();
+    private byte[] scratch = new byte[512];
+    private int length;
+    private MappedByteBuffer segment;
+    private Path segmentPath;
+    private int segmentIndex;
+    private long lastTimestamp;
+    private long droppedEntries;
+    private boolean closed;
+
+    /**
+     * Constructs a BinaryLogAppender.
+     *
+     * @param filePath    the path the segment names are derived from, e.g. {@code logs/audit.bxlog}
+     * @param segmentSize the size in bytes every segment file is created with
+     */
+    public BinaryLogAppender(@NotNull Path filePath, int segmentSize) {
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("Segment size must be at least 1024 bytes: " + segmentSize);
+        }
+        Path absolute = filePath.toAbsolutePath();
+        String fileName = absolute.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        this.directory = absolute.getParent();
+        this.baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        this.extension = dot > 0 ? fileName.substring(dot) : "";
+        this.segmentSize = segmentSize;
+        this.segmentIndex = nextSegmentIndex();
+    }
+
+    /**
+     * Constructs a BinaryLogAppender with segments of {@link #DEFAULT_SEGMENT_SIZE} bytes.
+     *
+     * @param filePath the path the segment names are derived from, e.g. {@code logs/audit.bxlog}
+     */
+    public BinaryLogAppender(@NotNull Path filePath) {
+        this(filePath, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Appends the log entry to the current segment.
+     *
+     * @param entry the log entry to append
+     */
+    @Override
+    public synchronized void append(LogEntry entry) {
+        if (!closed) {
+            tryWrite(entry);
+        }
+    }
+
+    /**
+     * Appends all log entries of the batch to the current segment.
+     *
+     * @param entries the log entries to append
+     */
+    @Override
+    public synchronized void appendBatch(List<LogEntry> entries) {
+        writeBatch(entries);
+    }
+
+    /**
+     * Appends all events of the batch to the current segment without copying them.
+     *
+     * @param events the events to append
+     */
+    @Override
+    public synchronized void appendEvents(List<? extends LogEvent> events) {
+        writeBatch(events);
+    }
+
+    private void writeBatch(List<? extends LogEvent> entries) {
+        if (closed) {
+            return;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            tryWrite(entries.get(i));
+        }
+    }
+
+    private void tryWrite(LogEvent entry) {
+        try {
+            write(entry);
+        } catch (IOException | RuntimeException e) {
+            droppedEntries++;
+            logger.warn(e);
+        }
+    }
+
+    /**
+     * Returns the number of entries that could not be written.
+     *
+     * @return the dropped entry count
+     */
+    public synchronized long getDroppedCount() {
+        return droppedEntries;
+    }
+
+    /**
+     * Returns the segment currently written to.
+     *
+     * @return the path of the current segment, or null if nothing has been written yet
+     */
+    public synchronized Path getSegmentPath() {
+        return segmentPath;
+    }
+
+    /**
+     * Forces the current segment to disk and releases it.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+    }
+
+    private void write(LogEvent entry) throws IOException {
+        if (segment == null) {
+            openSegment();
+        }
+
+        int dictionarySize = stringOrder.size();
+        long timestamp = lastTimestamp;
+        try {
+            encode(entry);
+            if (length > segment.remaining() && segment.position() > BinaryLogFormat.HEADER_SIZE) {
+                segment.force();
+                openSegment();
+                dictionarySize = 0;
+                timestamp = 0L;
+                encode(entry);
+            }
+            if (length > segment.remaining()) {
+                throw new IllegalStateException("Log entry of " + length + " bytes does not fit in a segment of " + segmentSize + " bytes");
+            }
+        } catch (IOException | RuntimeException e) {
+            // Strings interned for an entry that is not written would be referenced by later entries.
+            forget(dictionarySize);
+            lastTimestamp = timestamp;
+            throw e;
+        }
+        segment.put(scratch, 0, length);
+    }
+
+    private void openSegment() throws IOException {
+        Files.createDirectories(directory);
+        Path path = segmentPath(segmentIndex++);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segment.put(BinaryLogFormat.MAGIC).put(BinaryLogFormat.VERSION);
+        segmentPath = path;
+        strings.clear();
+        stringOrder.clear();
+        lastTimestamp = 0L;
+    }
+
+    private void forget(int dictionarySize) {
+        for (int i = stringOrder.size() - 1; i >= dictionarySize; i--) {
+            strings.remove(stringOrder.remove(i));
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(baseName + "-" + index + extension);
+    }
+
+    private int nextSegmentIndex() {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        Pattern pattern = Pattern.compile(Pattern.quote(baseName) + "-(\\d+)" + Pattern.quote(extension));
+        int next = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = pattern.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    next = Math.max(next, Integer.parseInt(matcher.group(1)) + 1);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            e.printStackTrace();
+        }
+        return next;
+    }
+
+    private void encode(LogEvent entry) {
+        length = 0;
+        // String definitions are emitted into the scratch buffer first, so ids are interned before the entry.
+        int loggerId = intern(entry.loggerName());
+        int threadNameId = intern(entry.threadName());
+        Object[] arguments = entry.arguments();
+        boolean templated = entry.messageTemplate() != null && arguments != null;
+        int templateId = templated ? intern(entry.messageTemplate()) : 0;
+        LogProperties properties = entry.properties() instanceof LogProperties ? (LogProperties) entry.properties() : new LogProperties(entry.properties());
+        int[] keyIds = new int[properties.size()];
+        for (int i = 0; i < keyIds.length; i++) {
+            keyIds[i] = intern(properties.keyAt(i));
+        }
+        List<int[]> throwableIds = entry.throwable() == null ? null : internThrowable(entry.throwable());
+
+        writeByte(BinaryLogFormat.TAG_ENTRY);
+        writeVarLong(loggerId);
+        writeByte(entry.logLevel().ordinal());
+        writeVarLong(zigzag(entry.timestamp() - lastTimestamp));
+        lastTimestamp = entry.timestamp();
+        writeVarLong(entry.threadID());
+        writeVarLong(threadNameId);
+        writeByte((templated ? BinaryLogFormat.FLAG_TEMPLATE : 0) | (throwableIds != null ? BinaryLogFormat.FLAG_THROWABLE : 0));
+        if (templated) {
+            writeVarLong(templateId);
+            writeVarLong(arguments.length);
+            for (Object argument : arguments) {
+                writeValue(argument instanceof Object[] ? Arrays.deepToString((Object[]) argument) : argument);
+            }
+        } else {
+            writeString(entry.message());
+        }
+        writeVarLong(keyIds.length);
+        for (int i = 0; i < keyIds.length; i++) {
+            writeVarLong(keyIds[i]);
+            writeValue(properties.valueAt(i));
+        }
+        if (throwableIds != null) {
+            writeThrowable(entry.throwable(), throwableIds);
+        }
+    }
+
+    private List<int[]> internThrowable(Throwable throwable) {
+        // One array per throwable in the cause chain: type id followed by class, method and file ids per frame.
+        List<int[]> ids = new ArrayList<>();
+        for (Throwable current = throwable; current != null && ids.size() < BinaryLogFormat.MAX_CAUSE_DEPTH; current = next(current)) {
+            StackTraceElement[] frames = current.getStackTrace();
+            int[] chain = new int[1 + frames.length * 3];
+            chain[0] = intern(typeName(current));
+            for (int i = 0; i < frames.length; i++) {
+                chain[1 + i * 3] = intern(frames[i].getClassName());
+                chain[2 + i * 3] = intern(frames[i].getMethodName());
+                chain[3 + i * 3] = intern(frames[i].getFileName());
+            }
+            ids.add(chain);
+        }
+        return ids;
+    }
+
+    private void writeThrowable(Throwable throwable, List<int[]> ids) {
+        Throwable current = throwable;
+        for (int depth = 0; depth < ids.size(); depth++, current = next(current)) {
+            int[] chain = ids.get(depth);
+            StackTraceElement[] frames = current.getStackTrace();
+            writeVarLong(chain[0]);
+            writeNullableString(current.getMessage());
+            writeVarLong(frames.length);
+            for (int i = 0; i < frames.length; i++) {
+                writeVarLong(chain[1 + i * 3]);
+                writeVarLong(chain[2 + i * 3]);
+                writeVarLong(chain[3 + i * 3]);
+                writeVarLong(zigzag(frames[i].getLineNumber()));
+            }
+            writeByte(depth + 1 < ids.size() ? 1 : 0);
+        }
+    }
+
+    private static Throwable next(Throwable throwable) {
+        Throwable cause = throwable.getCause();
+        return cause == throwable ? null : cause;
+    }
+
+    private static String typeName(Throwable throwable) {
+        return throwable instanceof DecodedThrowable ? ((DecodedThrowable) throwable).getTypeName() : throwable.getClass().getName();
+    }
+
+    private int intern(String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer id = strings.get(value);
+        if (id != null) {
+            return id;
+        }
+        stringOrder.add(value);
+        id = stringOrder.size();
+        strings.put(value, id);
+        writeByte(BinaryLogFormat.TAG_STRING);
+        writeString(value);
+        return id;
+    }
+
+    private void writeValue(Object value) {
+        if (value == null) {
+            writeByte(BinaryLogFormat.VALUE_NULL);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            writeByte(BinaryLogFormat.VALUE_LONG);
+            writeVarLong(zigzag(((Number) value).longValue()));
+        } else if (value instanceof Double) {
+            writeByte(BinaryLogFormat.VALUE_DOUBLE);
+            writeFixed(Double.doubleToRawLongBits((Double) value), 8);
+        } else if (value instanceof Float) {
+            writeByte(BinaryLogFormat.VALUE_FLOAT);
+            writeFixed(Float.floatToRawIntBits((Float) value), 4);
+        } else if (value instanceof Boolean) {
+            writeByte((Boolean) value ? BinaryLogFormat.VALUE_TRUE : BinaryLogFormat.VALUE_FALSE);
+        } else {
+            writeByte(BinaryLogFormat.VALUE_STRING);
+            writeString(String.valueOf(value));
+        }
+    }
+
+    private void writeNullableString(String value) {
+        if (value == null) {
+            writeByte(0);
+        } else {
+            writeByte(1);
+            writeString(value);
+        }
+    }
+
+    private void writeString(CharSequence value) {
+        int size = value.length();
+        int utf8Length = size;
+        for (int i = 0; i < size; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                utf8Length += c < 0x800 ? 1 : 2;
+            }
+        }
+        writeVarLong(utf8Length);
+        ensureCapacity(utf8Length);
+        for (int i = 0; i < size; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                scratch[length++] = (byte) c;
+            } else if (c < 0x800) {
+                scratch[length++] = (byte) (0xC0 | (c >> 6));
+                scratch[length++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                // Surrogates are written one by one, as in Java's modified UTF-8; the decoder reverses it exactly.
+                scratch[length++] = (byte) (0xE0 | (c >> 12));
+                scratch[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                scratch[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0L) {
+            scratch[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        scratch[length++] = (byte) value;
+    }
+
+    private void writeFixed(long value, int bytes) {
+        ensureCapacity(bytes);
+        for (int i = bytes - 1; i >= 0; i--) {
+            scratch[length++] = (byte) (value >>> (i * 8));
+        }
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        scratch[length++] = (byte) value;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (length + additional > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, length + additional));
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,282 @@
+package org.bxteam.commons.logger.appender;
+
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogLevel;
+import org.bxteam.commons.logger.LogProperties;
+import org.bxteam.commons.logger.MessageFormatter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads segment files written by {@link BinaryLogAppender} back into {@link LogEntry} records.
+ * <p>
+ * Messages of templated entries are rebuilt from their template and arguments; throwables are restored
+ * as {@link DecodedThrowable}s. The {@link #main(String[])} method turns segments into the text of a
+ * {@link ConsoleAppender} or a {@link JsonAppender} on the standard output:
+ * <pre>
+ * java -cp commons-shared.jar org.bxteam.commons.logger.appender.BinaryLogDecoder [--json | --pretty-json | --format=&lt;format&gt;] &lt;segment&gt;...
+ * </pre>
+ */
+public final class BinaryLogDecoder {
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final ByteBuffer buffer;
+    private final List<String> strings = new ArrayList<>();
+    private long lastTimestamp;
+
+    private BinaryLogDecoder(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Reads every entry of the segment file in the order they were written.
+     *
+     * @param segment  the segment file
+     * @param consumer the consumer receiving the entries
+     * @throws IOException if the file cannot be read or is not a segment
+     */
+    public static void read(@NotNull Path segment, @NotNull Consumer<LogEntry> consumer) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        byte[] magic = new byte[BinaryLogFormat.MAGIC.length];
+        if (buffer.remaining() < BinaryLogFormat.HEADER_SIZE || !Arrays.equals(readBytes(buffer, magic), BinaryLogFormat.MAGIC)) {
+            throw new IOException(segment + " is not a binary log segment");
+        }
+        byte version = buffer.get();
+        if (version != BinaryLogFormat.VERSION) {
+            throw new IOException(segment + " has unsupported version " + version);
+        }
+        new BinaryLogDecoder(buffer).readRecords(consumer);
+    }
+
+    /**
+     * Decodes the segment files given as arguments to the standard output.
+     *
+     * @param args the output option followed by the segment files
+     */
+    public static void main(String[] args) {
+        String format = ConsoleAppender.DEFAULT_FORMAT;
+        boolean json = false;
+        boolean prettyPrint = false;
+        List<Path> segments = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--json")) {
+                json = true;
+            } else if (arg.equals("--pretty-json")) {
+                json = true;
+                prettyPrint = true;
+            } else if (arg.startsWith("--format=")) {
+                format = arg.substring("--format=".length());
+            } else {
+                segments.add(Path.of(arg));
+            }
+        }
+        if (segments.isEmpty()) {
+            System.err.println("Usage: BinaryLogDecoder [--json | --pretty-json | --format=<format>] <segment>...");
+            System.exit(2);
+            return;
+        }
+
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 64 * 1024), false, StandardCharsets.UTF_8);
+        Consumer<LogEntry> printer = json ? jsonPrinter(out, prettyPrint) : textPrinter(out, LogTemplate.compile(format));
+        int status = 0;
+        for (Path segment : segments) {
+            try {
+                read(segment, printer);
+            } catch (IOException e) {
+                System.err.println("Could not decode " + segment + ": " + e.getMessage());
+                status = 1;
+            }
+        }
+        out.flush();
+        System.exit(status);
+    }
+
+    private static Consumer<LogEntry> textPrinter(PrintStream out, LogTemplate template) {
+        StringBuilder builder = new StringBuilder(1024);
+        return entry -> {
+            builder.setLength(0);
+            template.render(entry, builder);
+            builder.append(System.lineSeparator());
+            out.append(builder);
+        };
+    }
+
+    private static Consumer<LogEntry> jsonPrinter(OutputStream out, boolean prettyPrint) {
+        JsonEncoder encoder = new JsonEncoder(prettyPrint);
+        return entry -> {
+            encoder.reset();
+            encoder.encode(entry);
+            encoder.newLine();
+            try {
+                encoder.writeTo(out);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        };
+    }
+
+    private void readRecords(Consumer<LogEntry> consumer) throws IOException {
+        while (buffer.hasRemaining()) {
+            byte tag = buffer.get();
+            switch (tag) {
+                case BinaryLogFormat.TAG_END:
+                    return;
+                case BinaryLogFormat.TAG_STRING:
+                    strings.add(readString());
+                    break;
+                case BinaryLogFormat.TAG_ENTRY:
+                    consumer.accept(readEntry());
+                    break;
+                default:
+                    throw new IOException("Unknown record tag " + tag + " at offset " + (buffer.position() - 1));
+            }
+        }
+    }
+
+    private LogEntry readEntry() throws IOException {
+        String loggerName = string(readVarInt());
+        LogLevel level = LEVELS[buffer.get()];
+        long timestamp = lastTimestamp + unzigzag(readVarLong());
+        lastTimestamp = timestamp;
+        long threadId = readVarLong();
+        String threadName = string(readVarInt());
+        int flags = buffer.get();
+
+        String template = null;
+        Object[] arguments = null;
+        String message;
+        if ((flags & BinaryLogFormat.FLAG_TEMPLATE) != 0) {
+            template = string(readVarInt());
+            arguments = new Object[readVarInt()];
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = readValue();
+            }
+            message = MessageFormatter.format(template, arguments);
+        } else {
+            message = readString();
+        }
+
+        LogProperties properties = new LogProperties();
+        int propertyCount = readVarInt();
+        for (int i = 0; i < propertyCount; i++) {
+            String key = string(readVarInt());
+            Object value = readValue();
+            if (value != null) {
+                properties.put(key, value);
+            }
+        }
+
+        Throwable throwable = (flags & BinaryLogFormat.FLAG_THROWABLE) != 0 ? readThrowable() : null;
+        return new LogEntry(loggerName, level, message, timestamp, threadId, threadName, throwable, properties, template, arguments);
+    }
+
+    private Throwable readThrowable() throws IOException {
+        String typeName = string(readVarInt());
+        String message = buffer.get() != 0 ? readString() : null;
+        StackTraceElement[] frames = new StackTraceElement[readVarInt()];
+        for (int i = 0; i < frames.length; i++) {
+            String className = string(readVarInt());
+            String methodName = string(readVarInt());
+            String fileName = string(readVarInt());
+            frames[i] = new StackTraceElement(className, methodName, fileName, (int) unzigzag(readVarLong()));
+        }
+        Throwable cause = buffer.get() != 0 ? readThrowable() : null;
+
+        DecodedThrowable throwable = new DecodedThrowable(typeName, message, cause);
+        throwable.setStackTrace(frames);
+        return throwable;
+    }
+
+    private Object readValue() throws IOException {
+        byte type = buffer.get();
+        switch (type) {
+            case BinaryLogFormat.VALUE_NULL:
+                return null;
+            case BinaryLogFormat.VALUE_STRING:
+                return readString();
+            case BinaryLogFormat.VALUE_LONG:
+                return unzigzag(readVarLong());
+            case BinaryLogFormat.VALUE_DOUBLE:
+                return Double.longBitsToDouble(buffer.getLong());
+            case BinaryLogFormat.VALUE_FLOAT:
+                return Float.intBitsToFloat(buffer.getInt());
+            case BinaryLogFormat.VALUE_TRUE:
+                return Boolean.TRUE;
+            case BinaryLogFormat.VALUE_FALSE:
+                return Boolean.FALSE;
+            default:
+                throw new IOException("Unknown value type " + type + " at offset " + (buffer.position() - 1));
+        }
+    }
+
+    private String string(int id) throws IOException {
+        if (id == 0) {
+            return null;
+        }
+        if (id > strings.size()) {
+            throw new IOException("Undefined string id " + id + " at offset " + buffer.position());
+        }
+        return strings.get(id - 1);
+    }
+
+    private String readString() {
+        int length = readVarInt();
+        char[] chars = new char[length];
+        int count = 0;
+        int end = buffer.position() + length;
+        while (buffer.position() < end) {
+            int b = buffer.get() & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if (b < 0xE0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (buffer.get() & 0x3F));
+            } else {
+                chars[count++] = (char) (((b & 0x0F) << 12) | ((buffer.get() & 0x3F) << 6) | (buffer.get() & 0x3F));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    private int readVarInt() {
+        return (int) readVarLong();
+    }
+
+    private long readVarLong() {
+        long value = 0L;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,39 @@
+package org.bxteam.commons.logger.appender;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants of the segment format written by {@link BinaryLogAppender} and read by {@link BinaryLogDecoder}.
+ * <p>
+ * A segment starts with {@link #MAGIC} and {@link #VERSION}, followed by records that each start with a
+ * tag byte. A zero tag marks the end of the data in the pre-sized file. {@link #TAG_STRING} records define
+ * the next id of the segment's string table, which entries refer to by id for logger names, thread names,
+ * message templates, property keys and stack frames; id 0 stands for {@code null}. Integers are written as
+ * unsigned LEB128 varints, signed ones zigzag-encoded first. Timestamps are deltas to the previous entry
+ * of the segment. Every segment has its own string table, so each one can be decoded on its own.
+ */
+final class BinaryLogFormat {
+    static final byte[] MAGIC = "BXLG".getBytes(StandardCharsets.US_ASCII);
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = MAGIC.length + 1;
+
+    static final byte TAG_END = 0;
+    static final byte TAG_STRING = 1;
+    static final byte TAG_ENTRY = 2;
+
+    static final int FLAG_TEMPLATE = 1;
+    static final int FLAG_THROWABLE = 1 << 1;
+
+    static final byte VALUE_NULL = 0;
+    static final byte VALUE_STRING = 1;
+    static final byte VALUE_LONG = 2;
+    static final byte VALUE_DOUBLE = 3;
+    static final byte VALUE_FLOAT = 4;
+    static final byte VALUE_TRUE = 5;
+    static final byte VALUE_FALSE = 6;
+
+    static final int MAX_CAUSE_DEPTH = StackTraceCache.MAX_CAUSE_DEPTH;
+
+    private BinaryLogFormat() {
+    }
+}
@@ -1,33 +1,64 @@
 package org.bxteam.commons.logger.appender;
 
 import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogEvent;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.OutputStream;
 import java.io.PrintStream;
-import java.text.SimpleDateFormat;
+import java.util.List;
 
 /**
  * Appender that outputs log entries to the console.
+ * <p>
+ * Stack traces are rendered in full on the dispatcher thread that calls the appender. A stack trace
+ * that was already printed is only referenced by its fingerprint, see {@link StackTraceCache}.
  */
 public class ConsoleAppender implements Appender {
-    private static final SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    /**
+     * The format used when none is specified.
+     */
+    public static final String DEFAULT_FORMAT = "[{loggerName}] {timestamp} {logLevel}: {message}";
+
     private final PrintStream out;
     @NotNull
-    private final String format;
+    private final LogTemplate template;
+    private final StringBuilder builder = new StringBuilder(1024);
+    private final StackTraceCache stackTraces = new StackTraceCache();
 
     /**
      * Constructs a ConsoleAppender with the specified format.
+     * The format is compiled once into a {@link LogTemplate}.
      *
      * @param format the format string for log messages
      */
     public ConsoleAppender(@NotNull String format) {
-        this.format = format;
+        this(format, TimestampFormatter.getDefault());
+    }
+
+    /**
+     * Constructs a ConsoleAppender with the specified format and timestamp formatter.
+     *
+     * @param format             the format string for log messages
+     * @param timestampFormatter the formatter used for the {@code {timestamp}} placeholder
+     */
+    public ConsoleAppender(@NotNull String format, @NotNull TimestampFormatter timestampFormatter) {
+        this.template = LogTemplate.compile(format, timestampFormatter);
         this.out = new PrintStream(new OutputStream() {
             @Override
             public void write(int b) {
                 System.out.write(b);
             }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                System.out.write(b, off, len);
+            }
+
+            @Override
+            public void flush() {
+                System.out.flush();
+            }
         });
     }
 
@@ -35,7 +66,7 @@ public class ConsoleAppender implements Appender {
      * Constructs a ConsoleAppender with a default format.
      */
     public ConsoleAppender() {
-        this("[{loggerName}] {timestamp} {logLevel}: {message}");
+        this(DEFAULT_FORMAT);
     }
 
     /**
@@ -44,19 +75,51 @@ public class ConsoleAppender implements Appender {
      * @param logEntry the log entry to append
      */
     @Override
-    public void append(LogEntry logEntry) {
-        String message = format
-                .replace("{loggerName}", logEntry.loggerName())
-                .replace("{timestamp}", sdf.format(logEntry.timestamp()))
-                .replace("{threadName}", logEntry.threadName())
-                .replace("{logLevel}", logEntry.logLevel().name())
-                .replace("{message}", logEntry.message());
+    public synchronized void append(LogEntry logEntry) {
+        builder.setLength(0);
+        template.render(logEntry, builder, stackTraces);
+        builder.append(System.lineSeparator());
+        out.print(builder);
+        out.flush();
+    }
 
-        if (logEntry.throwable() != null) {
-            message += "\n" + logEntry.throwable();
+    /**
+     * Appends all log entries of the batch to the console with a single write and flush.
+     *
+     * @param logEntries the log entries to append
+     */
+    @Override
+    public synchronized void appendBatch(List<LogEntry> logEntries) {
+        writeBatch(logEntries);
+    }
+
+    /**
+     * Appends all events of the batch to the console without copying them.
+     *
+     * @param events the events to append
+     */
+    @Override
+    public synchronized void appendEvents(List<? extends LogEvent> events) {
+        writeBatch(events);
+    }
+
+    private void writeBatch(List<? extends LogEvent> events) {
+        builder.setLength(0);
+        for (int i = 0; i < events.size(); i++) {
+            template.render(events.get(i), builder, stackTraces);
+            builder.append(System.lineSeparator());
         }
+        out.print(builder);
+        out.flush();
+    }
 
-        out.println(message);
+    /**
+     * Returns the compiled template used to render entries.
+     *
+     * @return the log template
+     */
+    public LogTemplate getTemplate() {
+        return template;
     }
 
     /**
@@ -0,0 +1,46 @@
+package org.bxteam.commons.logger.appender;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A throwable read back by {@link BinaryLogDecoder}. It carries the type name, message, stack trace and
+ * cause of the original throwable and renders like it, without the original class having to be loadable.
+ */
+public final class DecodedThrowable extends Throwable {
+    private static final long serialVersionUID = 1L;
+
+    private final String typeName;
+
+    /**
+     * Constructs a DecodedThrowable.
+     *
+     * @param typeName the fully qualified class name of the original throwable
+     * @param message  the message of the original throwable
+     * @param cause    the decoded cause of the original throwable
+     */
+    public DecodedThrowable(@NotNull String typeName, @Nullable String message, @Nullable Throwable cause) {
+        super(message, cause, false, true);
+        this.typeName = typeName;
+    }
+
+    /**
+     * Returns the class name of the original throwable.
+     *
+     * @return the type name
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        String message = getLocalizedMessage();
+        return message != null ? typeName + ": " + message : typeName;
+    }
+}
@@ -0,0 +1,186 @@
+package org.bxteam.commons.logger.appender;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Buffered, append-only UTF-8 writer on top of a long-lived {@link FileChannel}.
+ * <p>
+ * Text is encoded, and pre-encoded bytes are copied, straight into a direct buffer, which is written to the channel when it is full,
+ * when the flush interval has elapsed or when {@link #flush()} is called. The channel is opened on
+ * the first write and can be reopened after {@link #close()}, which lets rolling appenders move
+ * the file away between two writes. Instances are not thread-safe.
+ */
+final class FileSink {
+    /**
+     * The default size of the buffer in bytes.
+     */
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    /**
+     * The default maximum time buffered output is held back, in milliseconds.
+     */
+    static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000L;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final long flushIntervalMillis;
+    private FileChannel channel;
+    private long written;
+    private long lastFlush = System.currentTimeMillis();
+
+    /**
+     * Constructs a FileSink with the default buffer size and flush interval.
+     *
+     * @param path the file to append to
+     */
+    FileSink(Path path) {
+        this(path, DEFAULT_BUFFER_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Constructs a FileSink.
+     *
+     * @param path                the file to append to
+     * @param bufferSize          the size of the direct buffer in bytes
+     * @param flushIntervalMillis the maximum time output is held back in the buffer, in milliseconds
+     */
+    FileSink(Path path, int bufferSize, long flushIntervalMillis) {
+        this.path = path;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Encodes the text into the buffer and flushes it if the flush interval has elapsed.
+     *
+     * @param text the text to append
+     * @throws IOException if the file cannot be opened or written
+     */
+    void write(CharSequence text) throws IOException {
+        ensureOpen();
+        CharBuffer input = CharBuffer.wrap(text);
+        encoder.reset();
+        CoderResult result;
+        while ((result = encoder.encode(input, buffer, true)).isOverflow()) {
+            writeBuffer();
+        }
+        if (result.isError()) {
+            result.throwException();
+        }
+        if (encoder.flush(buffer).isOverflow()) {
+            writeBuffer();
+            encoder.flush(buffer);
+        }
+
+        if (System.currentTimeMillis() - lastFlush >= flushIntervalMillis) {
+            flush();
+        }
+    }
+
+    /**
+     * Copies already encoded bytes into the buffer and flushes it if the flush interval has elapsed.
+     *
+     * @param bytes  the array holding the bytes
+     * @param offset the offset of the first byte
+     * @param length the number of bytes to append
+     * @throws IOException if the file cannot be opened or written
+     */
+    void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                writeBuffer();
+            }
+            int chunk = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+
+        if (System.currentTimeMillis() - lastFlush >= flushIntervalMillis) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffered output to the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    void flush() throws IOException {
+        lastFlush = System.currentTimeMillis();
+        if (buffer.position() > 0) {
+            ensureOpen();
+            writeBuffer();
+        }
+    }
+
+    /**
+     * Flushes the buffer and closes the channel. The next write reopens the file.
+     *
+     * @throws IOException if the file cannot be written or closed
+     */
+    void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            buffer.clear();
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the size of the file including output that is still buffered.
+     *
+     * @return the size in bytes
+     * @throws IOException if the file cannot be opened
+     */
+    long size() throws IOException {
+        ensureOpen();
+        return written + buffer.position();
+    }
+
+    /**
+     * Returns the file this sink appends to.
+     *
+     * @return the file path
+     */
+    Path path() {
+        return path;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (channel == null) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            written = channel.size();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        written += buffer.remaining();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+}
@@ -1,28 +1,34 @@
 package org.bxteam.commons.logger.appender;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.TypeAdapter;
-import com.google.gson.TypeAdapterFactory;
-import com.google.gson.reflect.TypeToken;
-import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonWriter;
 import org.bxteam.commons.logger.ExtendedLogger;
 import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogEvent;
+import org.bxteam.commons.logger.LoggerFactory;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
 
 /**
  * Appender that outputs log entries in JSON format.
+ * <p>
+ * Entries are serialized by a {@link JsonEncoder} into a reusable UTF-8 byte buffer.
+ * <p>
+ * When writing to a file, the appender keeps the file channel open and collects encoded entries in a
+ * direct buffer. The buffer is written out when it is full, when the flush interval has elapsed,
+ * when the dispatcher runs idle and when the appender is closed.
+ * <p>
+ * With stack trace deduplication enabled, each distinct stack trace is serialized in full once and
+ * repeats only carry its fingerprint, see {@link StackTraceCache}.
  */
 public class JsonAppender implements Appender {
-    private static final ExtendedLogger logger = new ExtendedLogger("JsonAppender");
+    private static final ExtendedLogger logger = LoggerFactory.getLogger(JsonAppender.class);
     private final boolean printToConsole;
     private final boolean printToFile;
-    private final String filePath;
-    private final Gson gson;
+    private final boolean prettyPrint;
+    private final JsonEncoder encoder;
+    private final FileSink fileSink;
+    private boolean closed;
 
     /**
      * Constructs a JsonAppender.
@@ -33,17 +39,40 @@ public class JsonAppender implements Appender {
      * @param filePath       the file path for writing logs (used if printToFile is true)
      */
     public JsonAppender(boolean prettyPrint, boolean printToConsole, boolean printToFile, String filePath) {
-        this.printToConsole = printToConsole;
-        this.printToFile = printToFile;
-        this.filePath = filePath;
-        GsonBuilder gsonBuilder = new GsonBuilder();
+        this(prettyPrint, printToConsole, printToFile, filePath, FileSink.DEFAULT_BUFFER_SIZE, FileSink.DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
 
-        if (prettyPrint) {
-            gsonBuilder.setPrettyPrinting();
-        }
+    /**
+     * Constructs a JsonAppender with explicit file buffering settings.
+     *
+     * @param prettyPrint         whether to format JSON with indents
+     * @param printToConsole      whether to print JSON to the console
+     * @param printToFile         whether to write JSON to a file
+     * @param filePath            the file path for writing logs (used if printToFile is true)
+     * @param bufferSize          the size of the file buffer in bytes
+     * @param flushIntervalMillis the maximum time buffered output is held back, in milliseconds
+     */
+    public JsonAppender(boolean prettyPrint, boolean printToConsole, boolean printToFile, String filePath, int bufferSize, long flushIntervalMillis) {
+        this(prettyPrint, printToConsole, printToFile, filePath, bufferSize, flushIntervalMillis, false);
+    }
 
-        gsonBuilder.registerTypeAdapterFactory(new ThrowableTypeAdapterFactory());
-        this.gson = gsonBuilder.create();
+    /**
+     * Constructs a JsonAppender with explicit file buffering and stack trace deduplication settings.
+     *
+     * @param prettyPrint            whether to format JSON with indents
+     * @param printToConsole         whether to print JSON to the console
+     * @param printToFile            whether to write JSON to a file
+     * @param filePath               the file path for writing logs (used if printToFile is true)
+     * @param bufferSize             the size of the file buffer in bytes
+     * @param flushIntervalMillis    the maximum time buffered output is held back, in milliseconds
+     * @param deduplicateStackTraces whether repeated stack traces are written by fingerprint only
+     */
+    public JsonAppender(boolean prettyPrint, boolean printToConsole, boolean printToFile, String filePath, int bufferSize, long flushIntervalMillis, boolean deduplicateStackTraces) {
+        this.printToConsole = printToConsole;
+        this.printToFile = printToFile;
+        this.fileSink = printToFile ? new FileSink(Path.of(filePath), bufferSize, flushIntervalMillis) : null;
+        this.prettyPrint = prettyPrint;
+        this.encoder = new JsonEncoder(prettyPrint, deduplicateStackTraces ? new StackTraceCache() : null);
     }
 
     /**
@@ -52,109 +81,100 @@ public class JsonAppender implements Appender {
      * @param logEntry the log entry to append
      */
     @Override
-    public void append(LogEntry logEntry) {
-        String json = gson.toJson(logEntry);
-
-        if (printToConsole) {
-            System.out.println(json);
-        }
+    public synchronized void append(LogEntry logEntry) {
+        encoder.reset();
+        encoder.encode(logEntry);
+        encoder.newLine();
+        write();
+    }
 
-        if (printToFile) {
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, true))) {
-                writer.write(json);
-                writer.newLine();
-            } catch (IOException e) {
-                logger.warn(e);
-            }
-        }
+    /**
+     * Converts all log entries of the batch to JSON and writes them with a single console write
+     * and at most one file flush, unless the file buffer fills up.
+     *
+     * @param logEntries the log entries to append
+     */
+    @Override
+    public synchronized void appendBatch(List<LogEntry> logEntries) {
+        writeBatch(logEntries);
     }
 
     /**
-     * Closes the appender. No resources to release in this implementation.
+     * Converts all events of the batch to JSON without copying them, like {@link #appendBatch(List)}.
+     *
+     * @param events the events to append
      */
     @Override
-    public void close() {
-        // No resources to close.
+    public synchronized void appendEvents(List<? extends LogEvent> events) {
+        writeBatch(events);
     }
 
     /**
-     * A factory for creating type adapters for Throwable serialization.
+     * Converts the log entry to a single JSON document without a trailing line separator.
+     *
+     * @param logEntry the log entry to convert
+     * @return the JSON representation of the entry
      */
-    @SuppressWarnings("unchecked")
-    static class ThrowableTypeAdapterFactory implements TypeAdapterFactory {
-        @Override
-        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
-            if (!Throwable.class.isAssignableFrom(type.getRawType())) {
-                return null;
-            }
+    public String toJson(LogEntry logEntry) {
+        JsonEncoder jsonEncoder = new JsonEncoder(prettyPrint);
+        jsonEncoder.encode(logEntry);
+        return jsonEncoder.toString();
+    }
 
-            return (TypeAdapter<T>) new ThrowableTypeAdapter();
+    /**
+     * Writes the buffered file output to the file channel.
+     */
+    @Override
+    public synchronized void flush() {
+        if (printToFile && !closed) {
+            try {
+                fileSink.flush();
+            } catch (IOException e) {
+                logger.warn(e);
+            }
         }
     }
 
     /**
-     * A type adapter for serializing and deserializing Throwable objects to/from JSON.
+     * Flushes the buffered file output and closes the file channel.
      */
-    static class ThrowableTypeAdapter extends TypeAdapter<Throwable> {
-        @Override
-        public void write(JsonWriter out, Throwable throwable) throws IOException {
-            if (throwable == null) {
-                out.nullValue();
-                return;
-            }
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
 
-            out.beginObject();
-            out.name("type").value(throwable.getClass().getName());
-            out.name("message").value(throwable.getMessage());
-            out.name("stackTrace");
-            out.beginArray();
-
-            for (StackTraceElement element : throwable.getStackTrace()) {
-                out.beginObject();
-                out.name("className").value(element.getClassName());
-                out.name("methodName").value(element.getMethodName());
-                out.name("fileName").value(element.getFileName());
-                out.name("lineNumber").value(element.getLineNumber());
-                out.endObject();
+        if (printToFile) {
+            try {
+                fileSink.close();
+            } catch (IOException e) {
+                logger.warn(e);
             }
+        }
+    }
 
-            out.endArray();
-            Throwable cause = throwable.getCause();
-
-            if (cause != null && cause != throwable) {
-                out.name("cause");
-                write(out, cause);
-            }
+    private void writeBatch(List<? extends LogEvent> events) {
+        encoder.reset();
+        for (int i = 0; i < events.size(); i++) {
+            encoder.encode(events.get(i));
+            encoder.newLine();
+        }
+        write();
+    }
 
-            out.endObject();
+    private void write() {
+        if (printToConsole) {
+            System.out.write(encoder.array(), 0, encoder.length());
+            System.out.flush();
         }
 
-        @Override
-        public Throwable read(JsonReader in) throws IOException {
-            in.beginObject();
-            String message = null;
-            String type = null;
-            Throwable cause = null;
-            while (in.hasNext()) {
-                String name = in.nextName();
-                switch (name) {
-                    case "type":
-                        type = in.nextString();
-                        break;
-                    case "message":
-                        message = in.nextString();
-                        break;
-                    case "cause":
-                        cause = read(in);
-                        break;
-                    default:
-                        in.skipValue();
-                        break;
-                }
+        if (printToFile && !closed) {
+            try {
+                fileSink.write(encoder.array(), 0, encoder.length());
+            } catch (IOException e) {
+                logger.warn(e);
             }
-            in.endObject();
-
-            return new Throwable(message, cause);
         }
     }
 }
@@ -0,0 +1,541 @@
+package org.bxteam.commons.logger.appender;
+
+import org.bxteam.commons.logger.LogEvent;
+import org.bxteam.commons.logger.LogProperties;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streaming, reflection-free JSON encoder for {@link LogEvent}s, including the immutable {@link org.bxteam.commons.logger.LogEntry}.
+ * <p>
+ * Entries are written as UTF-8 straight into a reusable byte buffer without building intermediate
+ * strings. The output matches the one of Gson's default {@code toJson} for the record with the throwable
+ * type adapter {@link JsonAppender} used before: {@code null} values are omitted, throwables are written
+ * as {@code type}, {@code message}, {@code stackTrace} and {@code cause}, and the HTML-sensitive characters
+ * {@code < > & = '} are escaped as <code>&#92;u003c</code> and so on. Property values may be strings, numbers, booleans,
+ * characters, enums, maps, iterables and arrays, nested in any way. The encoder differs from Gson in two cases:
+ * <ul>
+ *     <li>other objects are written as their {@link String#valueOf(Object)} form, where Gson would serialize
+ *     their fields by reflection;</li>
+ *     <li>non-finite doubles and floats are written as strings, where Gson would throw.</li>
+ * </ul>
+ * {@link LogProperties} are walked by index, without an iterator or entry objects.
+ * <p>
+ * An encoder constructed with a {@link StackTraceCache} adds a {@code fingerprint} to the throwable of every entry.
+ * A stack trace is written in full on its first occurrence only; repeats are written as {@code type},
+ * {@code message} and {@code fingerprint}, so readers look the full trace up by fingerprint.
+ * <p>
+ * Instances are not thread-safe; every appender keeps its own encoder.
+ */
+public final class JsonEncoder {
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    private static final boolean[] ESCAPED = new boolean[0x80];
+
+    static {
+        // Besides the characters JSON requires to escape, Gson escapes these for embedding in HTML.
+        for (char c : new char[] {'"', '\\', '<', '>', '&', '=', '\''}) {
+            ESCAPED[c] = true;
+        }
+    }
+
+    private final boolean prettyPrint;
+    @Nullable
+    private final StackTraceCache stackTraces;
+    private byte[] buffer;
+    private int length;
+    private int depth;
+    private boolean[] hasElements = new boolean[16];
+    private boolean[] isArray = new boolean[16];
+
+    /**
+     * Constructs a JsonEncoder.
+     *
+     * @param prettyPrint whether to format JSON with two-space indents, like Gson's pretty printing
+     */
+    public JsonEncoder(boolean prettyPrint) {
+        this(prettyPrint, null);
+    }
+
+    /**
+     * Constructs a JsonEncoder that writes repeated stack traces by reference.
+     *
+     * @param prettyPrint whether to format JSON with two-space indents, like Gson's pretty printing
+     * @param stackTraces the cache of stack traces already written, or null to always write them in full
+     */
+    public JsonEncoder(boolean prettyPrint, @Nullable StackTraceCache stackTraces) {
+        this.prettyPrint = prettyPrint;
+        this.stackTraces = stackTraces;
+        this.buffer = new byte[1024];
+    }
+
+    /**
+     * Appends the JSON document for the log entry to the buffer.
+     *
+     * @param entry the log entry to encode
+     */
+    public void encode(@NotNull LogEvent entry) {
+        beginObject();
+        name("loggerName");
+        string(entry.loggerName());
+        name("logLevel");
+        string(entry.logLevel().name());
+        name("message");
+        string(entry.message());
+        name("timestamp");
+        number(entry.timestamp());
+        name("threadID");
+        number(entry.threadID());
+        name("threadName");
+        string(entry.threadName());
+        if (entry.throwable() != null) {
+            name("throwable");
+            if (stackTraces == null) {
+                throwable(entry.throwable(), null);
+            } else {
+                fingerprintedThrowable(entry.throwable());
+            }
+        }
+        name("properties");
+        beginObject();
+        if (entry.properties() instanceof LogProperties) {
+            LogProperties properties = (LogProperties) entry.properties();
+            for (int i = 0; i < properties.size(); i++) {
+                property(properties.keyAt(i), properties.valueAt(i));
+            }
+        } else {
+            for (Map.Entry<String, Object> property : entry.properties().entrySet()) {
+                property(property.getKey(), property.getValue());
+            }
+        }
+        endObject();
+        endObject();
+    }
+
+    /**
+     * Appends the platform line separator to the buffer.
+     */
+    public void newLine() {
+        writeBytes(LINE_SEPARATOR, 0, LINE_SEPARATOR.length);
+    }
+
+    /**
+     * Discards the buffered output while keeping the allocated buffer.
+     */
+    public void reset() {
+        length = 0;
+        depth = 0;
+    }
+
+    /**
+     * Returns the backing array. Only the first {@link #length()} bytes are valid.
+     *
+     * @return the buffer
+     */
+    public byte[] array() {
+        return buffer;
+    }
+
+    /**
+     * Returns the number of encoded bytes in the buffer.
+     *
+     * @return the encoded length
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Writes the encoded bytes to the output stream.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeTo(@NotNull OutputStream out) throws IOException {
+        out.write(buffer, 0, length);
+    }
+
+    /**
+     * Decodes the buffered output into a string.
+     *
+     * @return the encoded JSON
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void fingerprintedThrowable(Throwable throwable) {
+        long fingerprint = StackTraceCache.fingerprint(throwable);
+        if (stackTraces.firstOccurrence(fingerprint)) {
+            throwable(throwable, StackTraceCache.toHex(fingerprint));
+            return;
+        }
+        beginObject();
+        throwableHeader(throwable);
+        name("fingerprint");
+        string(StackTraceCache.toHex(fingerprint));
+        endObject();
+    }
+
+    private void throwable(Throwable throwable, String fingerprint) {
+        beginObject();
+        throwableHeader(throwable);
+        if (fingerprint != null) {
+            name("fingerprint");
+            string(fingerprint);
+        }
+        name("stackTrace");
+        beginArray();
+        for (StackTraceElement element : throwable.getStackTrace()) {
+            beginObject();
+            name("className");
+            string(element.getClassName());
+            name("methodName");
+            string(element.getMethodName());
+            if (element.getFileName() != null) {
+                name("fileName");
+                string(element.getFileName());
+            }
+            name("lineNumber");
+            number(element.getLineNumber());
+            endObject();
+        }
+        endArray();
+
+        Throwable cause = throwable.getCause();
+        if (cause != null && cause != throwable) {
+            name("cause");
+            throwable(cause, null);
+        }
+        endObject();
+    }
+
+    private void throwableHeader(Throwable throwable) {
+        name("type");
+        string(StackTraceCache.typeName(throwable));
+        if (throwable.getMessage() != null) {
+            name("message");
+            string(throwable.getMessage());
+        }
+    }
+
+    private void property(String key, Object value) {
+        if (value != null) {
+            name(key);
+            value(value);
+        }
+    }
+
+    private void value(Object value) {
+        if (value instanceof CharSequence) {
+            string((CharSequence) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            number(((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            writeBytes((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Character) {
+            beforeValue();
+            writeByte('"');
+            escaped((Character) value);
+            writeByte('"');
+        } else if (isFiniteNumber(value)) {
+            beforeValue();
+            ascii(value.toString());
+        } else if (value instanceof AtomicInteger || value instanceof AtomicLong) {
+            number(((Number) value).longValue());
+        } else if (value instanceof Enum) {
+            string(((Enum<?>) value).name());
+        } else if (value instanceof Map) {
+            beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                // Like Gson, entries with a null value are omitted.
+                if (entry.getValue() != null) {
+                    name(keyName(entry.getKey()));
+                    value(entry.getValue());
+                }
+            }
+            endObject();
+        } else if (value instanceof Iterable) {
+            beginArray();
+            for (Object element : (Iterable<?>) value) {
+                element(element);
+            }
+            endArray();
+        } else if (value instanceof Object[]) {
+            beginArray();
+            for (Object element : (Object[]) value) {
+                element(element);
+            }
+            endArray();
+        } else if (value.getClass().isArray()) {
+            beginArray();
+            for (int i = 0, size = Array.getLength(value); i < size; i++) {
+                element(Array.get(value, i));
+            }
+            endArray();
+        } else {
+            string(String.valueOf(value));
+        }
+    }
+
+    private void element(Object element) {
+        if (element == null) {
+            writeBytes(NULL);
+        } else {
+            value(element);
+        }
+    }
+
+    private static String keyName(Object key) {
+        return key instanceof Enum ? ((Enum<?>) key).name() : String.valueOf(key);
+    }
+
+    private static boolean isFiniteNumber(Object value) {
+        if (value instanceof Double) {
+            return Double.isFinite((Double) value);
+        }
+        if (value instanceof Float) {
+            return Float.isFinite((Float) value);
+        }
+        return value instanceof BigDecimal || value instanceof BigInteger;
+    }
+
+    private void beginObject() {
+        beforeValue();
+        writeByte('{');
+        push(false);
+    }
+
+    private void endObject() {
+        close('}');
+    }
+
+    private void beginArray() {
+        beforeValue();
+        writeByte('[');
+        push(true);
+    }
+
+    private void endArray() {
+        close(']');
+    }
+
+    private void name(String name) {
+        if (hasElements[depth]) {
+            writeByte(',');
+        }
+        hasElements[depth] = true;
+        indent();
+        writeByte('"');
+        escaped(name);
+        writeByte('"');
+        writeByte(':');
+        if (prettyPrint) {
+            writeByte(' ');
+        }
+    }
+
+    private void string(CharSequence value) {
+        beforeValue();
+        writeByte('"');
+        escaped(value);
+        writeByte('"');
+    }
+
+    private void number(long value) {
+        beforeValue();
+        if (value == Long.MIN_VALUE) {
+            writeBytes(MIN_LONG, 0, MIN_LONG.length);
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long bound = 10; digits < 19 && value >= bound; bound *= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        for (int i = length + digits - 1; i >= length; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    private void writeBytes(byte[] bytes) {
+        beforeValue();
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    private void beforeValue() {
+        // Array elements need separators, object values follow their name and do not.
+        if (depth > 0 && isArray[depth]) {
+            if (hasElements[depth]) {
+                writeByte(',');
+            }
+            hasElements[depth] = true;
+            indent();
+        }
+    }
+
+    private void push(boolean array) {
+        depth++;
+        if (depth == hasElements.length) {
+            hasElements = Arrays.copyOf(hasElements, depth * 2);
+            isArray = Arrays.copyOf(isArray, depth * 2);
+        }
+        hasElements[depth] = false;
+        isArray[depth] = array;
+    }
+
+    private void close(char bracket) {
+        boolean nonEmpty = hasElements[depth];
+        depth--;
+        if (nonEmpty) {
+            indent();
+        }
+        writeByte(bracket);
+    }
+
+    private void indent() {
+        if (!prettyPrint) {
+            return;
+        }
+        ensureCapacity(1 + depth * 2);
+        buffer[length++] = '\n';
+        for (int i = 0; i < depth; i++) {
+            buffer[length++] = ' ';
+            buffer[length++] = ' ';
+        }
+    }
+
+    private void escaped(CharSequence value) {
+        int size = value.length();
+        ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && !ESCAPED[c]) {
+                if (length == buffer.length) {
+                    ensureCapacity(size - i);
+                }
+                buffer[length++] = (byte) c;
+            } else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(value.charAt(i + 1))) {
+                codePoint(Character.toCodePoint(c, value.charAt(++i)));
+            } else {
+                escaped(c);
+            }
+        }
+    }
+
+    private void escaped(char c) {
+        switch (c) {
+            case '"':
+                writeByte('\\');
+                writeByte('"');
+                break;
+            case '\\':
+                writeByte('\\');
+                writeByte('\\');
+                break;
+            case '\n':
+                writeByte('\\');
+                writeByte('n');
+                break;
+            case '\r':
+                writeByte('\\');
+                writeByte('r');
+                break;
+            case '\t':
+                writeByte('\\');
+                writeByte('t');
+                break;
+            case '\b':
+                writeByte('\\');
+                writeByte('b');
+                break;
+            case '\f':
+                writeByte('\\');
+                writeByte('f');
+                break;
+            default:
+                if (c < 0x20 || c == '\u2028' || c == '\u2029' || c < 0x80 && ESCAPED[c]) {
+                    ensureCapacity(6);
+                    buffer[length++] = '\\';
+                    buffer[length++] = 'u';
+                    buffer[length++] = HEX[(c >> 12) & 0xF];
+                    buffer[length++] = HEX[(c >> 8) & 0xF];
+                    buffer[length++] = HEX[(c >> 4) & 0xF];
+                    buffer[length++] = HEX[c & 0xF];
+                } else if (Character.isSurrogate(c)) {
+                    writeByte('?');
+                } else {
+                    codePoint(c);
+                }
+                break;
+        }
+    }
+
+    private void codePoint(int codePoint) {
+        ensureCapacity(4);
+        if (codePoint < 0x80) {
+            buffer[length++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            buffer[length++] = (byte) (0xC0 | (codePoint >> 6));
+            buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            buffer[length++] = (byte) (0xE0 | (codePoint >> 12));
+            buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+    }
+
+    private void ascii(String value) {
+        int size = value.length();
+        ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            buffer[length++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeByte(char b) {
+        if (length == buffer.length) {
+            ensureCapacity(1);
+        }
+        buffer[length++] = (byte) b;
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int count) {
+        ensureCapacity(count);
+        System.arraycopy(bytes, offset, buffer, length, count);
+        length += count;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (length + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + additional));
+        }
+    }
+}
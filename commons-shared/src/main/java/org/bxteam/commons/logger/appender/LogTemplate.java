@@ -0,0 +1,231 @@
+package org.bxteam.commons.logger.appender;
+
+import org.bxteam.commons.logger.LogEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A log format string compiled into a sequence of literal and field segments.
+ * <p>
+ * The format is parsed once; rendering an entry only appends each segment to a caller-supplied
+ * {@link StringBuilder}. Supported placeholders are {@code {loggerName}}, {@code {timestamp}},
+ * {@code {timestamp:<pattern>}}, {@code {threadName}}, {@code {threadId}}, {@code {logLevel}},
+ * {@code {message}}, {@code {property:<key>}} and {@code {stackTrace}}. Unknown placeholders are kept
+ * as literal text. Timestamps are rendered by a shared, thread-safe {@link TimestampFormatter}.
+ * <p>
+ * When the format has no {@code {stackTrace}} placeholder, the stack trace of an entry's throwable is
+ * appended on a new line after the rendered format. Stack traces are rendered like
+ * {@link Throwable#printStackTrace()}, with the frames a cause shares with its enclosing trace folded
+ * into {@code ... n more}. When rendering with a {@link StackTraceCache}, a stack trace already written
+ * is reduced to its first line followed by its fingerprint.
+ */
+public final class LogTemplate {
+    private static final Segment STACK_TRACE = (entry, out, stackTraces) -> {
+        if (entry.throwable() != null) {
+            appendStackTrace(entry.throwable(), out, stackTraces);
+        }
+    };
+
+    private final String format;
+    private final Segment[] segments;
+    private final boolean rendersStackTrace;
+
+    private LogTemplate(String format, Segment[] segments, boolean rendersStackTrace) {
+        this.format = format;
+        this.segments = segments;
+        this.rendersStackTrace = rendersStackTrace;
+    }
+
+    /**
+     * Compiles the specified format string, rendering {@code {timestamp}} with the default formatter.
+     *
+     * @param format the format string with placeholders
+     * @return the compiled template
+     */
+    public static LogTemplate compile(@NotNull String format) {
+        return compile(format, TimestampFormatter.getDefault());
+    }
+
+    /**
+     * Compiles the specified format string.
+     *
+     * @param format             the format string with placeholders
+     * @param timestampFormatter the formatter used for the {@code {timestamp}} placeholder
+     * @return the compiled template
+     */
+    public static LogTemplate compile(@NotNull String format, @NotNull TimestampFormatter timestampFormatter) {
+        List<Segment> segments = new ArrayList<>();
+        boolean rendersStackTrace = false;
+        StringBuilder literal = new StringBuilder();
+        int index = 0;
+
+        while (index < format.length()) {
+            int open = format.indexOf('{', index);
+            int close = open < 0 ? -1 : format.indexOf('}', open);
+            if (close < 0) {
+                literal.append(format, index, format.length());
+                break;
+            }
+
+            literal.append(format, index, open);
+            Segment field = field(format.substring(open + 1, close), timestampFormatter);
+            if (field == null) {
+                literal.append(format, open, close + 1);
+            } else {
+                if (literal.length() > 0) {
+                    segments.add(literalSegment(literal.toString()));
+                    literal.setLength(0);
+                }
+                segments.add(field);
+                rendersStackTrace |= field == STACK_TRACE;
+            }
+            index = close + 1;
+        }
+
+        if (literal.length() > 0) {
+            segments.add(literalSegment(literal.toString()));
+        }
+        return new LogTemplate(format, segments.toArray(new Segment[0]), rendersStackTrace);
+    }
+
+    /**
+     * Appends the rendered log entry to the builder, without a trailing line separator.
+     *
+     * @param entry the log entry to render
+     * @param out   the builder to append to
+     */
+    public void render(@NotNull LogEvent entry, @NotNull StringBuilder out) {
+        render(entry, out, null);
+    }
+
+    /**
+     * Appends the rendered log entry to the builder, without a trailing line separator, writing stack
+     * traces found in the cache only by reference.
+     *
+     * @param entry       the log entry to render
+     * @param out         the builder to append to
+     * @param stackTraces the cache of stack traces already written, or null to always write them in full
+     */
+    public void render(@NotNull LogEvent entry, @NotNull StringBuilder out, @Nullable StackTraceCache stackTraces) {
+        for (Segment segment : segments) {
+            segment.render(entry, out, stackTraces);
+        }
+        if (!rendersStackTrace && entry.throwable() != null) {
+            appendStackTrace(entry.throwable(), out, stackTraces);
+        }
+    }
+
+    /**
+     * Renders the log entry into a new string, without a trailing line separator.
+     *
+     * @param entry the log entry to render
+     * @return the rendered entry
+     */
+    public String render(@NotNull LogEvent entry) {
+        StringBuilder builder = new StringBuilder(format.length() + entry.message().length() + 32);
+        render(entry, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Returns the format string this template was compiled from.
+     *
+     * @return the format string
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    private static Segment field(String name, TimestampFormatter timestampFormatter) {
+        switch (name) {
+            case "loggerName":
+                return (entry, out, stackTraces) -> out.append(entry.loggerName());
+            case "timestamp":
+                return (entry, out, stackTraces) -> timestampFormatter.format(entry.timestamp(), out);
+            case "threadName":
+                return (entry, out, stackTraces) -> out.append(entry.threadName());
+            case "threadId":
+                return (entry, out, stackTraces) -> out.append(entry.threadID());
+            case "logLevel":
+                return (entry, out, stackTraces) -> out.append(entry.logLevel().name());
+            case "message":
+                return (entry, out, stackTraces) -> out.append(entry.message());
+            case "stackTrace":
+                return STACK_TRACE;
+            default:
+                if (name.startsWith("timestamp:") && name.length() > "timestamp:".length()) {
+                    TimestampFormatter formatter = new TimestampFormatter(name.substring("timestamp:".length()), timestampFormatter.getZone());
+                    return (entry, out, stackTraces) -> formatter.format(entry.timestamp(), out);
+                }
+                if (name.startsWith("property:") && name.length() > "property:".length()) {
+                    String key = name.substring("property:".length());
+                    return (entry, out, stackTraces) -> {
+                        Object value = entry.properties().get(key);
+                        if (value != null) {
+                            out.append(value);
+                        }
+                    };
+                }
+                return null;
+        }
+    }
+
+    private static Segment literalSegment(String text) {
+        return (entry, out, stackTraces) -> out.append(text);
+    }
+
+    private static void appendStackTrace(Throwable throwable, StringBuilder out, StackTraceCache stackTraces) {
+        out.append('\n').append(throwable);
+        if (stackTraces != null) {
+            long fingerprint = StackTraceCache.fingerprint(throwable);
+            boolean first = stackTraces.firstOccurrence(fingerprint);
+            out.append(" [stack ").append(StackTraceCache.toHex(fingerprint));
+            if (!first) {
+                out.append(" repeated]");
+                return;
+            }
+            out.append(']');
+        }
+
+        StackTraceElement[] trace = throwable.getStackTrace();
+        for (StackTraceElement element : trace) {
+            out.append("\n\tat ").append(element);
+        }
+
+        int depth = 1;
+        for (Throwable cause = StackTraceCache.cause(throwable); cause != null && depth < StackTraceCache.MAX_CAUSE_DEPTH; cause = StackTraceCache.cause(cause)) {
+            StackTraceElement[] causeTrace = cause.getStackTrace();
+            int inCommon = framesInCommon(causeTrace, trace);
+            out.append("\nCaused by: ").append(cause);
+            for (int i = 0; i < causeTrace.length - inCommon; i++) {
+                out.append("\n\tat ").append(causeTrace[i]);
+            }
+            if (inCommon > 0) {
+                out.append("\n\t... ").append(inCommon).append(" more");
+            }
+            trace = causeTrace;
+            depth++;
+        }
+    }
+
+    private static int framesInCommon(StackTraceElement[] trace, StackTraceElement[] enclosingTrace) {
+        int m = trace.length - 1;
+        int n = enclosingTrace.length - 1;
+        while (m >= 0 && n >= 0 && trace[m].equals(enclosingTrace[n])) {
+            m--;
+            n--;
+        }
+        return trace.length - 1 - m;
+    }
+
+    /**
+     * A compiled part of the format that appends itself to the output.
+     */
+    @FunctionalInterface
+    private interface Segment {
+        void render(LogEvent entry, StringBuilder out, StackTraceCache stackTraces);
+    }
+}
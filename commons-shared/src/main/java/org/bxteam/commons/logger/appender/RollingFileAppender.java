@@ -0,0 +1,344 @@
+package org.bxteam.commons.logger.appender;
+
+import org.bxteam.commons.logger.ExtendedLogger;
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogEvent;
+import org.bxteam.commons.logger.LoggerFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appender that writes log entries to a file and rolls it over by size and/or by day.
+ * <p>
+ * A rolled file is renamed to {@code <name>-<yyyy-MM-dd>-<n><extension>} next to the active file
+ * and compressed with gzip on a background thread, so the dispatcher thread only pays for the rename.
+ * Each appender owns its compressor thread, and {@link #close()} waits for pending archives before stopping it.
+ * Only the newest {@code maxArchives} compressed archives are kept.
+ * <p>
+ * Entries rendered with a {@link LogTemplate} write every distinct stack trace in full once per file and
+ * refer to repeats by fingerprint, see {@link StackTraceCache}.
+ */
+public class RollingFileAppender implements Appender {
+    private static final ExtendedLogger logger = LoggerFactory.getLogger(RollingFileAppender.class);
+    private static final long COMPRESSION_TIMEOUT_SECONDS = 30L;
+
+    private final ExecutorService compressor;
+    private final FileSink fileSink;
+    private final Function<LogEntry, String> formatter;
+    private final LogTemplate template;
+    private final long maxFileSize;
+    private final boolean rollDaily;
+    private final int maxArchives;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final String baseName;
+    private final String extension;
+    private final Pattern archivePattern;
+    private final StringBuilder builder = new StringBuilder(1024);
+    private final StackTraceCache stackTraces = new StackTraceCache();
+    private LocalDate currentDay;
+    private long nextRolloverMillis = Long.MIN_VALUE;
+    private boolean closed;
+
+    /**
+     * Constructs a RollingFileAppender with a custom formatter.
+     *
+     * @param filePath    the path of the active log file
+     * @param formatter   the function rendering an entry as a single line, without line separator
+     * @param maxFileSize the size in bytes after which the file is rolled, or 0 to disable size-based rolling
+     * @param rollDaily   whether to roll the file when the day changes
+     * @param maxArchives the number of rolled files to keep
+     * @throws IllegalArgumentException if maxArchives is negative, or maxFileSize is negative or 0 without daily rolling
+     */
+    public RollingFileAppender(@NotNull String filePath, @NotNull Function<LogEntry, String> formatter, long maxFileSize, boolean rollDaily, int maxArchives) {
+        this(filePath, formatter, null, maxFileSize, rollDaily, maxArchives);
+    }
+
+    /**
+     * Constructs a RollingFileAppender that renders entries with a {@link LogTemplate} format string.
+     *
+     * @param filePath    the path of the active log file
+     * @param format      the format string for log messages
+     * @param maxFileSize the size in bytes after which the file is rolled, or 0 to disable size-based rolling
+     * @param rollDaily   whether to roll the file when the day changes
+     * @param maxArchives the number of rolled files to keep
+     * @throws IllegalArgumentException if maxArchives is negative, or maxFileSize is negative or 0 without daily rolling
+     */
+    public RollingFileAppender(@NotNull String filePath, @NotNull String format, long maxFileSize, boolean rollDaily, int maxArchives) {
+        this(filePath, null, LogTemplate.compile(format), maxFileSize, rollDaily, maxArchives);
+    }
+
+    private RollingFileAppender(String filePath, Function<LogEntry, String> formatter, LogTemplate template, long maxFileSize, boolean rollDaily, int maxArchives) {
+        if (maxFileSize < 0 || (maxFileSize == 0 && !rollDaily)) {
+            throw new IllegalArgumentException("Max file size must be positive unless the file is rolled daily: " + maxFileSize);
+        }
+        if (maxArchives < 0) {
+            throw new IllegalArgumentException("Max archives must not be negative: " + maxArchives);
+        }
+        Path path = Path.of(filePath);
+        String fileName = path.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+
+        this.fileSink = new FileSink(path);
+        this.formatter = formatter;
+        this.template = template;
+        this.maxFileSize = maxFileSize;
+        this.rollDaily = rollDaily;
+        this.maxArchives = maxArchives;
+        this.baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        this.extension = dot > 0 ? fileName.substring(dot) : "";
+        this.archivePattern = Pattern.compile(Pattern.quote(baseName) + "-(\\d{4}-\\d{2}-\\d{2})-(\\d{1,18})" + Pattern.quote(extension) + "\\.gz");
+        this.compressor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "Commons-Logger-Compressor-" + fileName);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Writes the log entry to the active file, rolling it over first if required.
+     *
+     * @param logEntry the log entry to append
+     */
+    @Override
+    public synchronized void append(LogEntry logEntry) {
+        if (closed) {
+            return;
+        }
+        try {
+            write(logEntry);
+        } catch (IOException e) {
+            logger.warn(e);
+        }
+    }
+
+    /**
+     * Writes all log entries of the batch to the active file, rolling it over in between if required.
+     *
+     * @param logEntries the log entries to append
+     */
+    @Override
+    public synchronized void appendBatch(List<LogEntry> logEntries) {
+        writeBatch(logEntries);
+    }
+
+    /**
+     * Writes all events of the batch to the active file. Events are only copied for a formatter function.
+     *
+     * @param events the events to append
+     */
+    @Override
+    public synchronized void appendEvents(List<? extends LogEvent> events) {
+        writeBatch(events);
+    }
+
+    /**
+     * Writes the buffered output to the active file.
+     */
+    @Override
+    public synchronized void flush() {
+        if (closed) {
+            return;
+        }
+        try {
+            fileSink.flush();
+        } catch (IOException e) {
+            logger.warn(e);
+        }
+    }
+
+    /**
+     * Flushes the buffered output, closes the active file and waits up to 30 seconds for the archives that
+     * are still being compressed, then stops the compressor thread.
+     */
+    @Override
+    public void close() {
+        close(Duration.ofSeconds(COMPRESSION_TIMEOUT_SECONDS));
+    }
+
+    /**
+     * Flushes the buffered output, closes the active file and waits at most the timeout for the archives
+     * that are still being compressed, then stops the compressor thread. An archive whose compression is
+     * interrupted is left uncompressed.
+     *
+     * @param timeout the maximum time to wait for pending compressions
+     */
+    @Override
+    public synchronized void close(Duration timeout) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            fileSink.close();
+        } catch (IOException e) {
+            logger.warn(e);
+        }
+        compressor.shutdown();
+        try {
+            if (!compressor.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                compressor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            compressor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeBatch(List<? extends LogEvent> events) {
+        if (closed) {
+            return;
+        }
+        try {
+            for (int i = 0; i < events.size(); i++) {
+                write(events.get(i));
+            }
+        } catch (IOException e) {
+            logger.warn(e);
+        }
+    }
+
+    private void write(LogEvent logEntry) throws IOException {
+        if (rollDaily && logEntry.timestamp() >= nextRolloverMillis) {
+            LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(logEntry.timestamp()), zone);
+            if (currentDay == null) {
+                currentDay = initialDay(day);
+            }
+            if (!day.equals(currentDay)) {
+                roll();
+            }
+            currentDay = day;
+            nextRolloverMillis = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+
+        builder.setLength(0);
+        if (template != null) {
+            template.render(logEntry, builder, stackTraces);
+        } else {
+            builder.append(formatter.apply(logEntry.toLogEntry()));
+        }
+        builder.append(System.lineSeparator());
+        fileSink.write(builder);
+
+        if (maxFileSize > 0 && fileSink.size() >= maxFileSize) {
+            roll();
+        }
+    }
+
+    private LocalDate initialDay(LocalDate today) throws IOException {
+        Path path = fileSink.path();
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            return today;
+        }
+        return LocalDate.ofInstant(Files.getLastModifiedTime(path).toInstant(), zone);
+    }
+
+    private void roll() throws IOException {
+        fileSink.close();
+        stackTraces.clear();
+        Path path = fileSink.path();
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            return;
+        }
+
+        LocalDate day = currentDay != null ? currentDay : LocalDate.now(zone);
+        Path directory = path.toAbsolutePath().getParent();
+        Path archive;
+        int index = 1;
+        do {
+            archive = directory.resolve(baseName + "-" + day + "-" + index++ + extension);
+        } while (Files.exists(archive) || Files.exists(archive.resolveSibling(archive.getFileName() + ".gz")));
+
+        Files.move(path, archive, StandardCopyOption.ATOMIC_MOVE);
+        Path rolled = archive;
+        compressor.execute(() -> {
+            compress(rolled);
+            pruneArchives(directory);
+        });
+    }
+
+    private static void compress(Path source) {
+        Path target = source.resolveSibling(source.getFileName() + ".gz");
+        // Written under a temporary name, so an interrupted compression never leaves a truncated archive.
+        Path partial = source.resolveSibling(source.getFileName() + ".gz.tmp");
+        try {
+            try (InputStream in = Files.newInputStream(source);
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial), 64 * 1024)) {
+                in.transferTo(out);
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            logger.warn(e);
+            return;
+        }
+        try {
+            Files.delete(source);
+        } catch (IOException e) {
+            logger.warn(e);
+        }
+    }
+
+    private void pruneArchives(Path directory) {
+        List<Path> archives = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> archivePattern.matcher(file.getFileName().toString()).matches()).forEach(archives::add);
+        } catch (IOException e) {
+            logger.warn(e);
+            return;
+        }
+        if (archives.size() <= maxArchives) {
+            return;
+        }
+
+        // Archives rolled within the same timestamp granularity are ordered by day, then by numeric index.
+        archives.sort(Comparator.comparingLong(RollingFileAppender::lastModified)
+                .thenComparing(archive -> archiveMatcher(archive).group(1))
+                .thenComparingLong(archive -> Long.parseLong(archiveMatcher(archive).group(2))));
+        for (int i = 0; i < archives.size() - maxArchives; i++) {
+            try {
+                Files.deleteIfExists(archives.get(i));
+            } catch (IOException e) {
+                logger.warn(e);
+            }
+        }
+    }
+
+    private Matcher archiveMatcher(Path archive) {
+        Matcher matcher = archivePattern.matcher(archive.getFileName().toString());
+        matcher.matches();
+        return matcher;
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
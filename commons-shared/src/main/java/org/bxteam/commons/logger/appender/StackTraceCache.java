@@ -0,0 +1,131 @@
+package org.bxteam.commons.logger.appender;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the fingerprints of stack traces an appender has already written in full.
+ * <p>
+ * A fingerprint is a 64-bit hash of the type names and frames of a throwable and its cause chain.
+ * Messages are left out, so the same failure with a different message still shares a fingerprint.
+ * Appenders write a stack trace in full on its first occurrence and afterwards only refer to it by
+ * fingerprint. The least recently seen fingerprints are evicted once the cache is full, so an evicted
+ * stack trace is simply written in full again.
+ * <p>
+ * Instances are not thread-safe; every appender keeps its own cache and uses it under its own lock.
+ */
+public final class StackTraceCache {
+    /**
+     * The default number of fingerprints remembered.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    /**
+     * The maximum number of throwables of a cause chain that are fingerprinted and written, which also
+     * stops a cyclic cause chain.
+     */
+    static final int MAX_CAUSE_DEPTH = 32;
+
+    private final Map<Long, Boolean> seen;
+
+    /**
+     * Constructs a StackTraceCache remembering at most the specified number of fingerprints.
+     *
+     * @param maxSize the maximum number of fingerprints
+     */
+    public StackTraceCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maxSize);
+        }
+        this.seen = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Constructs a StackTraceCache with the default size.
+     */
+    public StackTraceCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Records the fingerprint and returns whether it was seen for the first time.
+     *
+     * @param fingerprint the stack trace fingerprint
+     * @return true if the stack trace has to be written in full
+     */
+    public boolean firstOccurrence(long fingerprint) {
+        return seen.put(fingerprint, Boolean.TRUE) == null;
+    }
+
+    /**
+     * Forgets all fingerprints, for example when an appender starts a new file.
+     */
+    public void clear() {
+        seen.clear();
+    }
+
+    /**
+     * Returns the number of fingerprints currently remembered.
+     *
+     * @return the cache size
+     */
+    public int size() {
+        return seen.size();
+    }
+
+    /**
+     * Computes the fingerprint of the throwable's stack trace and cause chain.
+     *
+     * @param throwable the throwable
+     * @return the 64-bit fingerprint
+     */
+    public static long fingerprint(@NotNull Throwable throwable) {
+        long hash = 0xCBF29CE484222325L;
+        int depth = 0;
+        for (Throwable current = throwable; current != null && depth < MAX_CAUSE_DEPTH; current = cause(current)) {
+            hash = mix(hash, typeName(current).hashCode());
+            for (StackTraceElement element : current.getStackTrace()) {
+                hash = mix(hash, element.getClassName().hashCode());
+                hash = mix(hash, element.getMethodName().hashCode());
+                hash = mix(hash, element.getFileName() == null ? 0 : element.getFileName().hashCode());
+                hash = mix(hash, element.getLineNumber());
+            }
+            depth++;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Formats a fingerprint as 16 lowercase hexadecimal digits.
+     *
+     * @param fingerprint the fingerprint
+     * @return the hexadecimal form
+     */
+    public static String toHex(long fingerprint) {
+        String hex = Long.toHexString(fingerprint);
+        return hex.length() == 16 ? hex : "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    static String typeName(Throwable throwable) {
+        return throwable instanceof DecodedThrowable ? ((DecodedThrowable) throwable).getTypeName() : throwable.getClass().getName();
+    }
+
+    static Throwable cause(Throwable throwable) {
+        Throwable cause = throwable.getCause();
+        return cause == throwable ? null : cause;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * 0x100000001B3L + (hash >>> 29);
+    }
+}
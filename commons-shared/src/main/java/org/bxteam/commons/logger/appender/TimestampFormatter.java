@@ -0,0 +1,172 @@
+package org.bxteam.commons.logger.appender;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Thread-safe timestamp formatter based on {@code java.time}.
+ * <p>
+ * The text of the current second is formatted once and cached; entries logged within the same second
+ * only render the milliseconds of a {@code S} run in the pattern (up to three digits). The cache is an
+ * immutable object swapped through a volatile field, so one instance can be shared by any number of
+ * appenders and loggers. Patterns with more than one run of {@code S}, or with a field finer than a second
+ * other than {@code S} ({@code n}, {@code N} or {@code A}), are formatted in full every time.
+ */
+public final class TimestampFormatter {
+    /**
+     * The pattern used when none is specified.
+     */
+    public static final String DEFAULT_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private static final TimestampFormatter DEFAULT = new TimestampFormatter(DEFAULT_PATTERN, ZoneId.systemDefault());
+
+    private final String pattern;
+    private final ZoneId zone;
+    private final DateTimeFormatter fullFormatter;
+    private final DateTimeFormatter prefixFormatter;
+    private final DateTimeFormatter suffixFormatter;
+    private final int fractionDigits;
+    private volatile CachedSecond cachedSecond = new CachedSecond(Long.MIN_VALUE, "", "");
+
+    /**
+     * Constructs a TimestampFormatter.
+     *
+     * @param pattern the {@link DateTimeFormatter} pattern
+     * @param zone    the time zone timestamps are rendered in
+     */
+    public TimestampFormatter(@NotNull String pattern, @NotNull ZoneId zone) {
+        this.pattern = pattern;
+        this.zone = zone;
+        this.fullFormatter = DateTimeFormatter.ofPattern(pattern).withZone(zone);
+
+        int start = -1;
+        int end = -1;
+        int runs = 0;
+        boolean subSecondField = false;
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && (c == 'n' || c == 'N' || c == 'A')) {
+                // Nano-of-second, nano-of-day and milli-of-day change within the cached second.
+                subSecondField = true;
+            } else if (!quoted && c == 'S' && (i == 0 || pattern.charAt(i - 1) != 'S')) {
+                runs++;
+                start = i;
+                end = i;
+                while (end < pattern.length() && pattern.charAt(end) == 'S') {
+                    end++;
+                }
+            }
+        }
+
+        if (subSecondField || runs > 1 || (runs == 1 && end - start > 3)) {
+            this.prefixFormatter = null;
+            this.suffixFormatter = null;
+            this.fractionDigits = -1;
+        } else if (runs == 1) {
+            this.prefixFormatter = formatter(pattern.substring(0, start), zone);
+            this.suffixFormatter = formatter(pattern.substring(end), zone);
+            this.fractionDigits = end - start;
+        } else {
+            this.prefixFormatter = fullFormatter;
+            this.suffixFormatter = null;
+            this.fractionDigits = 0;
+        }
+    }
+
+    /**
+     * Constructs a TimestampFormatter using the system default time zone.
+     *
+     * @param pattern the {@link DateTimeFormatter} pattern
+     */
+    public TimestampFormatter(@NotNull String pattern) {
+        this(pattern, ZoneId.systemDefault());
+    }
+
+    /**
+     * Returns the shared formatter for {@link #DEFAULT_PATTERN} in the system default time zone.
+     *
+     * @return the default TimestampFormatter
+     */
+    public static TimestampFormatter getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Appends the formatted timestamp to the builder.
+     *
+     * @param epochMillis the timestamp in milliseconds since the epoch
+     * @param out         the builder to append to
+     */
+    public void format(long epochMillis, @NotNull StringBuilder out) {
+        if (fractionDigits < 0) {
+            fullFormatter.formatTo(Instant.ofEpochMilli(epochMillis), out);
+            return;
+        }
+
+        long epochSecond = Math.floorDiv(epochMillis, 1000L);
+        CachedSecond cached = cachedSecond;
+        if (cached.epochSecond() != epochSecond) {
+            Instant instant = Instant.ofEpochSecond(epochSecond);
+            cached = new CachedSecond(epochSecond,
+                    prefixFormatter == null ? "" : prefixFormatter.format(instant),
+                    suffixFormatter == null ? "" : suffixFormatter.format(instant));
+            cachedSecond = cached;
+        }
+
+        out.append(cached.prefix());
+        if (fractionDigits > 0) {
+            int millis = (int) Math.floorMod(epochMillis, 1000L);
+            if (fractionDigits == 1) {
+                out.append((char) ('0' + millis / 100));
+            } else if (fractionDigits == 2) {
+                out.append((char) ('0' + millis / 100)).append((char) ('0' + millis / 10 % 10));
+            } else {
+                out.append((char) ('0' + millis / 100)).append((char) ('0' + millis / 10 % 10)).append((char) ('0' + millis % 10));
+            }
+        }
+        out.append(cached.suffix());
+    }
+
+    /**
+     * Formats the timestamp into a new string.
+     *
+     * @param epochMillis the timestamp in milliseconds since the epoch
+     * @return the formatted timestamp
+     */
+    public String format(long epochMillis) {
+        StringBuilder builder = new StringBuilder(pattern.length() + 8);
+        format(epochMillis, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Returns the pattern of this formatter.
+     *
+     * @return the pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns the time zone timestamps are rendered in.
+     *
+     * @return the zone
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    private static DateTimeFormatter formatter(String pattern, ZoneId zone) {
+        return pattern.isEmpty() ? null : DateTimeFormatter.ofPattern(pattern).withZone(zone);
+    }
+
+    private record CachedSecond(long epochSecond, String prefix, String suffix) {
+    }
+}
@@ -0,0 +1,114 @@
+package org.bxteam.commons.logger.dispatch;
+
+import org.bxteam.commons.logger.LogLevel;
+import org.bxteam.commons.logger.appender.Appender;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small, fixed set of {@link LogDispatcher}s shared between appenders.
+ * <p>
+ * Every appender is pinned to one dispatcher the first time it is seen, so its entries keep their
+ * order and it is only ever called from one consumer thread. New appenders go to the dispatcher with
+ * the fewest appenders. A slow appender therefore only delays the appenders sharing its dispatcher,
+ * not the whole pool.
+ */
+public final class DispatcherPool {
+    private final LogDispatcher[] dispatchers;
+    private final int[] assignedCounts;
+    private final Map<Appender, LogDispatcher> assignments = new IdentityHashMap<>();
+
+    /**
+     * Constructs a DispatcherPool and starts its consumer threads.
+     *
+     * @param threadNamePrefix the name prefix of the consumer threads, followed by their index
+     * @param size             the number of dispatchers in the pool
+     * @param capacity         the minimum number of buffered entries per dispatcher
+     * @param overflowPolicy   the policy applied when a dispatcher's buffer is full
+     * @param dropThreshold    the lowest level that is never dropped by {@link OverflowPolicy#DROP_BELOW_LEVEL}
+     */
+    public DispatcherPool(@NotNull String threadNamePrefix, int size, int capacity, @NotNull OverflowPolicy overflowPolicy, @NotNull LogLevel dropThreshold) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + size);
+        }
+        this.dispatchers = new LogDispatcher[size];
+        this.assignedCounts = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.dispatchers[i] = new LogDispatcher(threadNamePrefix + "-" + i, capacity, overflowPolicy, dropThreshold);
+        }
+    }
+
+    /**
+     * Constructs a DispatcherPool that never drops entries at the WARN level or above.
+     *
+     * @param threadNamePrefix the name prefix of the consumer threads, followed by their index
+     * @param size             the number of dispatchers in the pool
+     * @param capacity         the minimum number of buffered entries per dispatcher
+     * @param overflowPolicy   the policy applied when a dispatcher's buffer is full
+     */
+    public DispatcherPool(@NotNull String threadNamePrefix, int size, int capacity, @NotNull OverflowPolicy overflowPolicy) {
+        this(threadNamePrefix, size, capacity, overflowPolicy, LogLevel.WARN);
+    }
+
+    /**
+     * Returns the dispatcher the appender is pinned to, assigning one if the appender is new.
+     *
+     * @param appender the appender
+     * @return the dispatcher delivering entries to the appender
+     */
+    public synchronized LogDispatcher dispatcherFor(@NotNull Appender appender) {
+        LogDispatcher dispatcher = assignments.get(appender);
+        if (dispatcher != null) {
+            return dispatcher;
+        }
+
+        int index = 0;
+        for (int i = 1; i < dispatchers.length; i++) {
+            if (assignedCounts[i] < assignedCounts[index]) {
+                index = i;
+            }
+        }
+        assignedCounts[index]++;
+        assignments.put(appender, dispatchers[index]);
+        return dispatchers[index];
+    }
+
+    /**
+     * Returns the dispatchers of this pool.
+     *
+     * @return an unmodifiable list of the dispatchers
+     */
+    public List<LogDispatcher> getDispatchers() {
+        return List.of(dispatchers);
+    }
+
+    /**
+     * Returns the number of dispatchers in this pool.
+     *
+     * @return the pool size
+     */
+    public int getSize() {
+        return dispatchers.length;
+    }
+
+    /**
+     * Shuts down every dispatcher of the pool, sharing the timeout between them.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return true if every dispatcher was fully drained within the timeout
+     */
+    public boolean shutdown(long timeout, @NotNull TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean drained = true;
+        for (LogDispatcher dispatcher : dispatchers) {
+            long remaining = Math.max(0L, deadline - System.nanoTime());
+            drained &= dispatcher.shutdown(remaining, TimeUnit.NANOSECONDS);
+        }
+        return drained;
+    }
+}
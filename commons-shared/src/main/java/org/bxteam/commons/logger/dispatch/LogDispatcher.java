@@ -0,0 +1,630 @@
+package org.bxteam.commons.logger.dispatch;
+
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogEvent;
+import org.bxteam.commons.logger.LogLevel;
+import org.bxteam.commons.logger.appender.Appender;
+import org.bxteam.commons.logger.metrics.DispatcherMetrics;
+import org.bxteam.commons.logger.metrics.LatencyHistogram;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dispatches log entries from any number of producer threads to their appenders on a single consumer thread.
+ * <p>
+ * Entries are passed through a pre-allocated {@link RingBuffer}, so publishing an entry does not allocate.
+ * When the buffer is full, the configured {@link OverflowPolicy} decides what happens to the entry.
+ * <p>
+ * The consumer drains up to {@code batchSize} entries at a time and hands consecutive entries destined
+ * for the same appenders over in a single {@link Appender#appendBatch(List)} call. Whenever the queue runs
+ * empty, every appender that received entries since the last idle period is asked to {@link Appender#flush()}.
+ * <p>
+ * The dispatcher counts published, drained, dropped and inline-delivered entries and records how long every
+ * append call takes per appender in a {@link LatencyHistogram}. The counters come from the ring buffer cursors
+ * and cost nothing extra on the producer path; {@link #getMetrics()} returns them as a snapshot.
+ * <p>
+ * A garbage-free dispatcher pre-allocates a reusable event per slot. Loggers fill it in place through
+ * {@link #dispatchInPlace}, formatting the message into the event's own builder, and the slot is recycled
+ * after its appenders ran, so steady-state logging allocates nothing. Such events reach the appenders
+ * through {@link Appender#appendEvents(List)}.
+ * <p>
+ * Every dispatcher that has not been shut down is registered, so {@link #shutdownAll} can drain them all,
+ * including the ones of a {@link DispatcherPool}, from a JVM shutdown hook.
+ */
+public final class LogDispatcher {
+    /**
+     * The default number of slots in the ring buffer.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+    /**
+     * The default maximum number of entries handed to an appender in one batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10L);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50L);
+    private static final long FLUSH_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+    private static final Set<LogDispatcher> LIVE_DISPATCHERS = ConcurrentHashMap.newKeySet();
+
+    private final String name;
+    private final RingBuffer ringBuffer;
+    private final OverflowPolicy overflowPolicy;
+    private final LogLevel dropThreshold;
+    private final int batchSize;
+    private final Thread consumer;
+    private final LongAdder droppedEntries = new LongAdder();
+    private final LongAdder inlineEntries = new LongAdder();
+    private final Map<Appender, LatencyHistogram> appendLatencies = new ConcurrentHashMap<>();
+    private final Map<Appender, LongAdder> appenderDrops = new ConcurrentHashMap<>();
+    private final Object terminationLock = new Object();
+    private final List<LogEvent> batch;
+    private final List<LogEvent> batchView;
+    private final RingBuffer.Handler batcher = this::addToBatch;
+    private final List<Appender> unflushedAppenders = new ArrayList<>();
+    private List<Appender> batchAppenders;
+    private boolean batchHasEvents;
+    private volatile boolean consumerParked;
+    private volatile boolean flushRequested;
+    private volatile long flushedPosition;
+    private volatile boolean running = true;
+    private boolean terminated;
+
+    /**
+     * Constructs a LogDispatcher and starts its consumer thread.
+     *
+     * @param threadName     the name of the consumer thread
+     * @param capacity       the minimum number of buffered entries, rounded up to a power of two
+     * @param overflowPolicy the policy applied when the buffer is full
+     * @param dropThreshold  the lowest level that is never dropped by {@link OverflowPolicy#DROP_BELOW_LEVEL}
+     * @param batchSize      the maximum number of entries drained and handed to an appender at a time
+     */
+    public LogDispatcher(@NotNull String threadName, int capacity, @NotNull OverflowPolicy overflowPolicy, @NotNull LogLevel dropThreshold, int batchSize) {
+        this(threadName, capacity, overflowPolicy, dropThreshold, batchSize, false);
+    }
+
+    /**
+     * Constructs a LogDispatcher, optionally garbage-free, and starts its consumer thread.
+     *
+     * @param threadName     the name of the consumer thread
+     * @param capacity       the minimum number of buffered entries, rounded up to a power of two
+     * @param overflowPolicy the policy applied when the buffer is full
+     * @param dropThreshold  the lowest level that is never dropped by {@link OverflowPolicy#DROP_BELOW_LEVEL}
+     * @param batchSize      the maximum number of entries drained and handed to an appender at a time
+     * @param garbageFree    whether to pre-allocate reusable events that loggers fill in place
+     */
+    public LogDispatcher(@NotNull String threadName, int capacity, @NotNull OverflowPolicy overflowPolicy, @NotNull LogLevel dropThreshold, int batchSize, boolean garbageFree) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.name = threadName;
+        this.ringBuffer = new RingBuffer(capacity, garbageFree);
+        this.overflowPolicy = overflowPolicy;
+        this.dropThreshold = dropThreshold;
+        this.batchSize = batchSize;
+        this.batch = new ArrayList<>(batchSize);
+        this.batchView = Collections.unmodifiableList(batch);
+        this.consumer = new Thread(this::runConsumer, threadName);
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+        LIVE_DISPATCHERS.add(this);
+    }
+
+    /**
+     * Constructs a LogDispatcher with the default batch size.
+     *
+     * @param threadName     the name of the consumer thread
+     * @param capacity       the minimum number of buffered entries, rounded up to a power of two
+     * @param overflowPolicy the policy applied when the buffer is full
+     * @param dropThreshold  the lowest level that is never dropped by {@link OverflowPolicy#DROP_BELOW_LEVEL}
+     */
+    public LogDispatcher(@NotNull String threadName, int capacity, @NotNull OverflowPolicy overflowPolicy, @NotNull LogLevel dropThreshold) {
+        this(threadName, capacity, overflowPolicy, dropThreshold, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a LogDispatcher that never drops entries at the WARN level or above.
+     *
+     * @param threadName     the name of the consumer thread
+     * @param capacity       the minimum number of buffered entries, rounded up to a power of two
+     * @param overflowPolicy the policy applied when the buffer is full
+     */
+    public LogDispatcher(@NotNull String threadName, int capacity, @NotNull OverflowPolicy overflowPolicy) {
+        this(threadName, capacity, overflowPolicy, LogLevel.WARN);
+    }
+
+    /**
+     * Hands the log entry over to the consumer thread.
+     *
+     * @param entry     the log entry to dispatch
+     * @param appenders the appenders that should receive the entry
+     */
+    public void dispatch(@NotNull LogEntry entry, @NotNull List<Appender> appenders) {
+        if (running && ringBuffer.offer(entry, appenders)) {
+            published();
+            return;
+        }
+
+        if (!running || Thread.currentThread() == consumer) {
+            // An appender logging from the consumer thread must never wait for itself.
+            deliver(entry, appenders);
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case DROP_NEWEST:
+                drop(appenders);
+                break;
+            case DROP_BELOW_LEVEL:
+                if (entry.logLevel().ordinal() < dropThreshold.ordinal()) {
+                    drop(appenders);
+                } else {
+                    awaitSlot(entry, appenders);
+                }
+                break;
+            case CALLER_RUNS:
+                deliver(entry, appenders);
+                break;
+            default:
+                awaitSlot(entry, appenders);
+                break;
+        }
+    }
+
+    /**
+     * Fills a pre-allocated event in place and hands it over to the consumer thread. Either the message
+     * or the template is used; the template is formatted on the calling thread, into the event.
+     * <p>
+     * Returns false without dispatching anything when the dispatcher is not garbage-free or stopped, or
+     * when the entry would have to be delivered on the calling thread. The caller then dispatches a
+     * {@link LogEntry} instead.
+     *
+     * @param loggerName the name of the logger
+     * @param logLevel   the log level
+     * @param message    the message text, or null to format the template
+     * @param template   the message template, used when the message is null
+     * @param arguments  the template arguments
+     * @param throwable  the throwable to log, if any
+     * @param appenders  the appenders that should receive the entry
+     * @return true if the entry was dispatched or dropped by the overflow policy
+     */
+    public boolean dispatchInPlace(@NotNull String loggerName, @NotNull LogLevel logLevel, @Nullable String message, @Nullable String template,
+                                   @Nullable Object[] arguments, @Nullable Throwable throwable, @NotNull List<Appender> appenders) {
+        if (!running || !ringBuffer.isGarbageFree()) {
+            return false;
+        }
+
+        long position = ringBuffer.tryClaim();
+        if (position < 0) {
+            if (Thread.currentThread() == consumer) {
+                return false;
+            }
+            switch (overflowPolicy) {
+                case DROP_NEWEST:
+                    drop(appenders);
+                    return true;
+                case DROP_BELOW_LEVEL:
+                    if (logLevel.ordinal() < dropThreshold.ordinal()) {
+                        drop(appenders);
+                        return true;
+                    }
+                    position = awaitClaim();
+                    break;
+                case CALLER_RUNS:
+                    return false;
+                default:
+                    position = awaitClaim();
+                    break;
+            }
+            if (position < 0) {
+                return false;
+            }
+        }
+
+        try {
+            ringBuffer.eventAt(position).fill(loggerName, logLevel, message, template, arguments, throwable);
+        } finally {
+            // A claimed slot must always be published, or the consumer stalls at it.
+            ringBuffer.publish(position, appenders);
+        }
+        published();
+        return true;
+    }
+
+    /**
+     * Waits until every entry dispatched before this call has been delivered and its appenders flushed.
+     * Entries dispatched meanwhile do not extend the wait. Returns false immediately when called from
+     * the consumer thread, which cannot wait for itself.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return true if the entries were delivered and flushed within the timeout
+     */
+    public boolean flush(long timeout, @NotNull TimeUnit unit) {
+        long target = ringBuffer.publishedCount();
+        if (Thread.currentThread() == consumer) {
+            return flushedPosition >= target;
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (flushedPosition < target) {
+            if (!consumer.isAlive()) {
+                return ringBuffer.drainedCount() >= target;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L) {
+                return false;
+            }
+            flushRequested = true;
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(this, Math.min(remaining, FLUSH_PARK_NANOS));
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting new work and waits for the consumer thread to drain the buffer.
+     * Entries dispatched after this call are delivered on the calling thread.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return true if the buffer was fully drained within the timeout
+     */
+    public boolean shutdown(long timeout, @NotNull TimeUnit unit) {
+        stop();
+        try {
+            consumer.join(Math.max(1L, unit.toMillis(timeout)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainAfterTermination();
+        return !consumer.isAlive();
+    }
+
+    /**
+     * Shuts down every dispatcher that has been created and not shut down yet, sharing the timeout between
+     * them. All of them stop accepting new work first, so their consumer threads drain in parallel.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return true if every dispatcher was fully drained within the timeout
+     */
+    public static boolean shutdownAll(long timeout, @NotNull TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        List<LogDispatcher> dispatchers = new ArrayList<>(LIVE_DISPATCHERS);
+        for (LogDispatcher dispatcher : dispatchers) {
+            dispatcher.stop();
+        }
+        boolean drained = true;
+        for (LogDispatcher dispatcher : dispatchers) {
+            long remaining = Math.max(0L, deadline - System.nanoTime());
+            drained &= dispatcher.shutdown(remaining, TimeUnit.NANOSECONDS);
+        }
+        return drained;
+    }
+
+    /**
+     * Returns the dispatchers that have been created and not shut down yet.
+     *
+     * @return an immutable snapshot of the live dispatchers
+     */
+    public static List<LogDispatcher> getLiveDispatchers() {
+        return List.copyOf(LIVE_DISPATCHERS);
+    }
+
+    /**
+     * Returns the number of entries waiting to be delivered.
+     *
+     * @return the current queue depth
+     */
+    public int getQueueSize() {
+        return ringBuffer.size();
+    }
+
+    /**
+     * Returns the number of entries handed to the consumer thread since the dispatcher was created.
+     *
+     * @return the enqueued entry count
+     */
+    public long getEnqueuedCount() {
+        return ringBuffer.publishedCount();
+    }
+
+    /**
+     * Returns the number of entries taken off the queue by the consumer thread.
+     *
+     * @return the drained entry count
+     */
+    public long getDrainedCount() {
+        return ringBuffer.drainedCount();
+    }
+
+    /**
+     * Returns the number of entries delivered on the calling thread instead of the consumer thread,
+     * because of {@link OverflowPolicy#CALLER_RUNS}, a shutdown or an appender logging from the consumer thread.
+     *
+     * @return the inline entry count
+     */
+    public long getInlineCount() {
+        return inlineEntries.sum();
+    }
+
+    /**
+     * Returns the append latency histogram of the appender. A batch counts as one append call.
+     *
+     * @param appender the appender
+     * @return the histogram, or null if the appender has not been called by this dispatcher yet
+     */
+    public @Nullable LatencyHistogram getAppendLatency(@NotNull Appender appender) {
+        return appendLatencies.get(appender);
+    }
+
+    /**
+     * Captures the counters and append latencies of this dispatcher.
+     *
+     * @return a snapshot of the dispatcher metrics
+     */
+    public DispatcherMetrics getMetrics() {
+        Map<Appender, LatencyHistogram.Snapshot> latencies = new IdentityHashMap<>();
+        appendLatencies.forEach((appender, histogram) -> latencies.put(appender, histogram.snapshot()));
+        return new DispatcherMetrics(name, System.nanoTime(), getQueueSize(), getCapacity(), getEnqueuedCount(),
+                getDrainedCount(), getDroppedCount(), getInlineCount(), Collections.unmodifiableMap(latencies));
+    }
+
+    /**
+     * Returns the name of this dispatcher, which is also the name of its consumer thread.
+     *
+     * @return the dispatcher name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of slots in the ring buffer.
+     *
+     * @return the buffer capacity
+     */
+    public int getCapacity() {
+        return ringBuffer.capacity();
+    }
+
+    /**
+     * Returns the number of entries discarded because the buffer was full.
+     *
+     * @return the dropped entry count
+     */
+    public long getDroppedCount() {
+        return droppedEntries.sum();
+    }
+
+    /**
+     * Returns the number of entries destined for the appender that were discarded because the buffer was full.
+     *
+     * @param appender the appender
+     * @return the dropped entry count of the appender
+     */
+    public long getDroppedCount(@NotNull Appender appender) {
+        LongAdder dropped = appenderDrops.get(appender);
+        return dropped != null ? dropped.sum() : 0L;
+    }
+
+    /**
+     * Returns the maximum number of entries handed to an appender at a time.
+     *
+     * @return the batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns whether this dispatcher pre-allocates reusable events for {@link #dispatchInPlace}.
+     *
+     * @return true if the dispatcher is garbage-free
+     */
+    public boolean isGarbageFree() {
+        return ringBuffer.isGarbageFree();
+    }
+
+    /**
+     * Returns the overflow policy of this dispatcher.
+     *
+     * @return the overflow policy
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    private void awaitSlot(LogEntry entry, List<Appender> appenders) {
+        while (!ringBuffer.offer(entry, appenders)) {
+            if (!running) {
+                deliver(entry, appenders);
+                return;
+            }
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+        published();
+    }
+
+    private void drop(List<Appender> appenders) {
+        droppedEntries.increment();
+        for (int i = 0; i < appenders.size(); i++) {
+            Appender appender = appenders.get(i);
+            LongAdder dropped = appenderDrops.get(appender);
+            if (dropped == null) {
+                dropped = appenderDrops.computeIfAbsent(appender, key -> new LongAdder());
+            }
+            dropped.increment();
+        }
+    }
+
+    private void stop() {
+        running = false;
+        LIVE_DISPATCHERS.remove(this);
+        LockSupport.unpark(consumer);
+    }
+
+    private long awaitClaim() {
+        long position;
+        while ((position = ringBuffer.tryClaim()) < 0) {
+            if (!running) {
+                return -1L;
+            }
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+        return position;
+    }
+
+    private void published() {
+        if (running) {
+            signalConsumer();
+        } else {
+            // The dispatcher was shut down after the entry was accepted, the consumer may be gone already.
+            drainAfterTermination();
+        }
+    }
+
+    /**
+     * Delivers the entries published after the consumer thread exited. The consumer only exits after
+     * seeing an empty buffer under the same lock, so an entry published before the lock is taken is
+     * either drained by the consumer or by this call.
+     */
+    private void drainAfterTermination() {
+        synchronized (terminationLock) {
+            if (!terminated) {
+                return;
+            }
+            while (ringBuffer.drain(batcher, batchSize) > 0) {
+                flushBatch();
+                ringBuffer.release();
+            }
+            flushAppenders();
+            flushedPosition = ringBuffer.drainedCount();
+        }
+    }
+
+    private void signalConsumer() {
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void runConsumer() {
+        while (true) {
+            int drained = ringBuffer.drain(batcher, batchSize);
+            flushBatch();
+            ringBuffer.release();
+            if (flushRequested) {
+                flushRequested = false;
+                flushAppenders();
+                flushedPosition = ringBuffer.drainedCount();
+            }
+            if (drained > 0) {
+                continue;
+            }
+            flushAppenders();
+            flushedPosition = ringBuffer.drainedCount();
+            if (!running) {
+                synchronized (terminationLock) {
+                    if (ringBuffer.isEmpty()) {
+                        terminated = true;
+                        return;
+                    }
+                }
+            }
+            consumerParked = true;
+            if (running && ringBuffer.isEmpty()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+            consumerParked = false;
+        }
+    }
+
+    private void addToBatch(LogEvent entry, List<Appender> appenders) {
+        if (appenders != batchAppenders) {
+            flushBatch();
+            batchAppenders = appenders;
+        }
+        batch.add(entry);
+        batchHasEvents |= !(entry instanceof LogEntry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void flushBatch() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (Appender appender : batchAppenders) {
+            long start = System.nanoTime();
+            try {
+                if (batchHasEvents) {
+                    appender.appendEvents(batchView);
+                } else {
+                    appender.appendBatch((List<LogEntry>) (List<?>) batchView);
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            latencyOf(appender).record(System.nanoTime() - start);
+            if (!containsAppender(unflushedAppenders, appender)) {
+                unflushedAppenders.add(appender);
+            }
+        }
+        batch.clear();
+        batchAppenders = null;
+        batchHasEvents = false;
+    }
+
+    private void flushAppenders() {
+        for (int i = 0; i < unflushedAppenders.size(); i++) {
+            try {
+                unflushedAppenders.get(i).flush();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        unflushedAppenders.clear();
+    }
+
+    private static boolean containsAppender(List<Appender> appenders, Appender appender) {
+        for (int i = 0; i < appenders.size(); i++) {
+            if (appenders.get(i) == appender) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private LatencyHistogram latencyOf(Appender appender) {
+        LatencyHistogram histogram = appendLatencies.get(appender);
+        return histogram != null ? histogram : appendLatencies.computeIfAbsent(appender, key -> new LatencyHistogram());
+    }
+
+    private void deliver(LogEntry entry, List<Appender> appenders) {
+        inlineEntries.increment();
+        for (Appender appender : appenders) {
+            long start = System.nanoTime();
+            try {
+                appender.append(entry);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            latencyOf(appender).record(System.nanoTime() - start);
+        }
+    }
+}
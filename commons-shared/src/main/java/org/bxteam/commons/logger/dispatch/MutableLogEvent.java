@@ -0,0 +1,128 @@
+package org.bxteam.commons.logger.dispatch;
+
+import org.bxteam.commons.logger.LogContext;
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogEvent;
+import org.bxteam.commons.logger.LogLevel;
+import org.bxteam.commons.logger.LogProperties;
+import org.bxteam.commons.logger.MessageFormatter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+/**
+ * Pre-allocated, reusable event stored in a slot of a garbage-free {@link RingBuffer}.
+ * <p>
+ * The logging thread fills the event in place, formatting the message into the event's own
+ * {@link StringBuilder}; the consumer thread recycles it once every appender has run. Builders that grew
+ * beyond {@link #MAX_RETAINED_MESSAGE_CAPACITY} are replaced, so a single huge message does not pin memory.
+ */
+final class MutableLogEvent implements LogEvent {
+    static final int INITIAL_MESSAGE_CAPACITY = 128;
+    static final int MAX_RETAINED_MESSAGE_CAPACITY = 4096;
+
+    private final LogProperties properties = new LogProperties();
+    private StringBuilder message = new StringBuilder(INITIAL_MESSAGE_CAPACITY);
+    private String loggerName;
+    private LogLevel logLevel;
+    private long timestamp;
+    private long threadID;
+    private String threadName;
+    private Throwable throwable;
+
+    /**
+     * Fills the event on the logging thread.
+     *
+     * @param loggerName the name of the logger
+     * @param logLevel   the log level
+     * @param message    the message text, or null to format the template
+     * @param template   the message template, used when the message is null
+     * @param arguments  the template arguments
+     * @param throwable  the throwable to log, if any
+     */
+    void fill(String loggerName, LogLevel logLevel, String message, String template, Object[] arguments, Throwable throwable) {
+        Thread thread = Thread.currentThread();
+        this.loggerName = loggerName;
+        this.logLevel = logLevel;
+        this.timestamp = System.currentTimeMillis();
+        this.threadID = thread.getId();
+        this.threadName = thread.getName();
+        this.throwable = throwable;
+        if (message == null && template != null) {
+            MessageFormatter.formatTo(template, arguments, this.message);
+        } else {
+            this.message.append(message);
+        }
+        LogContext.current().copyTo(properties);
+    }
+
+    /**
+     * Drops all references held by the event so it can be filled again.
+     */
+    void recycle() {
+        if (message.capacity() > MAX_RETAINED_MESSAGE_CAPACITY) {
+            message = new StringBuilder(INITIAL_MESSAGE_CAPACITY);
+        } else {
+            message.setLength(0);
+        }
+        properties.clear();
+        loggerName = null;
+        threadName = null;
+        throwable = null;
+    }
+
+    @Override
+    public @NotNull String loggerName() {
+        return loggerName;
+    }
+
+    @Override
+    public @NotNull LogLevel logLevel() {
+        return logLevel;
+    }
+
+    @Override
+    public @NotNull CharSequence message() {
+        return message;
+    }
+
+    @Override
+    public long timestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public long threadID() {
+        return threadID;
+    }
+
+    @Override
+    public @NotNull String threadName() {
+        return threadName;
+    }
+
+    @Override
+    public Throwable throwable() {
+        return throwable;
+    }
+
+    @Override
+    public @NotNull Map<String, Object> properties() {
+        return properties;
+    }
+
+    @Override
+    public String messageTemplate() {
+        return null;
+    }
+
+    @Override
+    public Object[] arguments() {
+        return null;
+    }
+
+    @Override
+    public @NotNull LogEntry toLogEntry() {
+        return new LogEntry(loggerName, logLevel, message.toString(), timestamp, threadID, threadName, throwable, new LogProperties(properties));
+    }
+}
@@ -0,0 +1,23 @@
+package org.bxteam.commons.logger.dispatch;
+
+/**
+ * Enumeration of strategies applied by a {@link LogDispatcher} when its ring buffer is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * The calling thread waits until the consumer frees a slot. No entries are lost.
+     */
+    BLOCK,
+    /**
+     * The entry that does not fit is discarded and counted as dropped.
+     */
+    DROP_NEWEST,
+    /**
+     * Entries below the dispatcher's drop threshold are discarded, the rest wait for a free slot.
+     */
+    DROP_BELOW_LEVEL,
+    /**
+     * The appenders are invoked directly on the calling thread.
+     */
+    CALLER_RUNS
+}
@@ -0,0 +1,236 @@
+package org.bxteam.commons.logger.dispatch;
+
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogEvent;
+import org.bxteam.commons.logger.appender.Appender;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer single-consumer ring buffer of pre-allocated slots.
+ * <p>
+ * Every slot carries a sequence number. Producers claim a position with a single CAS on the
+ * tail cursor, fill the slot and publish it by advancing the slot sequence. The consumer reads
+ * published slots in order and hands them back to producers by moving the sequence one lap ahead once
+ * they have been processed, see {@link #release()}.
+ * <p>
+ * A garbage-free buffer also pre-allocates a {@link MutableLogEvent} per slot. Producers fill it in place
+ * between {@link #tryClaim()} and {@link #publish(long, List)}, and it is recycled when the slot is released.
+ */
+final class RingBuffer {
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final LogEvent[] entries;
+    private final Object[] targets;
+    private final MutableLogEvent[] events;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private long readPosition;
+
+    /**
+     * Constructs a RingBuffer able to hold at least the specified number of entries.
+     *
+     * @param minimumCapacity the minimum capacity, rounded up to the next power of two
+     */
+    RingBuffer(int minimumCapacity) {
+        this(minimumCapacity, false);
+    }
+
+    /**
+     * Constructs a RingBuffer able to hold at least the specified number of entries.
+     *
+     * @param minimumCapacity the minimum capacity, rounded up to the next power of two
+     * @param garbageFree     whether to pre-allocate a reusable event per slot
+     */
+    RingBuffer(int minimumCapacity, boolean garbageFree) {
+        if (minimumCapacity < 1 || minimumCapacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + minimumCapacity);
+        }
+        this.capacity = minimumCapacity == 1 ? 1 : Integer.highestOneBit(minimumCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        this.entries = new LogEvent[capacity];
+        this.targets = new Object[capacity];
+        this.events = garbageFree ? new MutableLogEvent[capacity] : null;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+            if (garbageFree) {
+                events[i] = new MutableLogEvent();
+            }
+        }
+    }
+
+    /**
+     * Attempts to publish an entry without waiting.
+     *
+     * @param entry     the log entry
+     * @param appenders the appenders the entry is destined for
+     * @return true if the entry was published, false if the buffer is full
+     */
+    boolean offer(LogEntry entry, List<Appender> appenders) {
+        long position = tryClaim();
+        if (position < 0) {
+            return false;
+        }
+        int index = (int) position & mask;
+        entries[index] = entry;
+        targets[index] = appenders;
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Attempts to claim the next slot without waiting. A claimed slot must be published with
+     * {@link #publish(long, List)}, otherwise the consumer stalls at it.
+     *
+     * @return the claimed position, or -1 if the buffer is full
+     */
+    long tryClaim() {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (difference < 0) {
+                return -1L;
+            }
+            position = tail.get();
+        }
+    }
+
+    /**
+     * Returns the reusable event of the claimed position. Only available in a garbage-free buffer.
+     *
+     * @param position the claimed position
+     * @return the event to fill
+     */
+    MutableLogEvent eventAt(long position) {
+        return events[(int) position & mask];
+    }
+
+    /**
+     * Publishes the reusable event of the claimed position.
+     *
+     * @param position  the claimed position
+     * @param appenders the appenders the event is destined for
+     */
+    void publish(long position, List<Appender> appenders) {
+        int index = (int) position & mask;
+        entries[index] = events[index];
+        targets[index] = appenders;
+        sequences.lazySet(index, position + 1);
+    }
+
+    /**
+     * Passes up to {@code limit} published entries to the handler in publication order. The slots stay
+     * owned by the consumer until {@link #release()} is called. Must only be called from the single
+     * consumer thread.
+     *
+     * @param handler the handler receiving the entries
+     * @param limit   the maximum number of entries to pass
+     * @return the number of entries passed
+     */
+    @SuppressWarnings("unchecked")
+    int drain(Handler handler, int limit) {
+        int count = 0;
+        while (count < limit) {
+            long position = readPosition;
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            readPosition = position + 1;
+            count++;
+            handler.handle(entries[index], (List<Appender>) targets[index]);
+        }
+        return count;
+    }
+
+    /**
+     * Hands every slot passed to the handler since the last call back to the producers, recycling
+     * reusable events. Must only be called from the single consumer thread, after the entries have
+     * been processed.
+     */
+    void release() {
+        long position = head;
+        long end = readPosition;
+        while (position < end) {
+            int index = (int) position & mask;
+            entries[index] = null;
+            targets[index] = null;
+            if (events != null) {
+                events[index].recycle();
+            }
+            sequences.lazySet(index, position + capacity);
+            position++;
+        }
+        head = end;
+    }
+
+    /**
+     * Returns whether no entry has been claimed beyond the consumer position.
+     *
+     * @return true if the buffer is empty
+     */
+    boolean isEmpty() {
+        return tail.get() == head;
+    }
+
+    /**
+     * Returns the number of claimed entries that have not been drained yet.
+     *
+     * @return the current queue depth
+     */
+    int size() {
+        return (int) Math.max(0L, tail.get() - head);
+    }
+
+    /**
+     * Returns the number of entries published since the buffer was created.
+     *
+     * @return the total number of claimed positions
+     */
+    long publishedCount() {
+        return tail.get();
+    }
+
+    /**
+     * Returns the number of entries released since the buffer was created.
+     *
+     * @return the consumer position
+     */
+    long drainedCount() {
+        return head;
+    }
+
+    /**
+     * Returns the number of slots in this buffer.
+     *
+     * @return the capacity
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns whether the buffer pre-allocates reusable events.
+     *
+     * @return true if the buffer is garbage-free
+     */
+    boolean isGarbageFree() {
+        return events != null;
+    }
+
+    /**
+     * Receives entries passed by {@link #drain(Handler, int)}.
+     */
+    interface Handler {
+        void handle(LogEvent entry, List<Appender> appenders);
+    }
+}
@@ -0,0 +1,119 @@
+package org.bxteam.commons.logger.filter;
+
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogLevel;
+import org.bxteam.commons.logger.LogProperties;
+import org.bxteam.commons.logger.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Flushable;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Listener that collapses consecutive identical entries into a single "repeated N times" line.
+ * <p>
+ * The first entry of a run passes through; identical entries that follow it within the window are
+ * only counted. When a different entry arrives, or an identical one after the window has elapsed,
+ * a summary with the number of repeats is logged to the logger first, carrying it in the
+ * {@value #REPEATED_PROPERTY} property. Entries are identical when their level and formatted message
+ * are equal, so the same template logged with other arguments is a different entry. The current run
+ * is swapped through an {@link AtomicReference} and counted with an {@link AtomicLong}, so repeats
+ * cost one read and one increment, without locks.
+ * <p>
+ * A run that is not followed by another entry is summarized by {@link #flush()}, which
+ * {@link Logger#flush(Duration)} and {@link Logger#shutdown(Duration)} call before draining the logger.
+ * <p>
+ * Register it with {@link Logger#addListener(Function)} on the logger passed to the constructor.
+ * Summaries are logged on the thread that ends the run; the filter lets them through itself.
+ */
+public final class DeduplicatingFilter implements Function<LogEntry, Boolean>, Flushable {
+    /**
+     * The property holding the number of repeats on a summary entry.
+     */
+    public static final String REPEATED_PROPERTY = "repeated";
+
+    private final Logger logger;
+    private final long windowNanos;
+    private final AtomicReference<Run> current = new AtomicReference<>();
+    private final ThreadLocal<Boolean> emitting = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    /**
+     * Constructs a DeduplicatingFilter.
+     *
+     * @param logger the logger the filter is registered on and the summaries are logged to
+     * @param window the longest time repeats are collapsed before the message is let through again
+     */
+    public DeduplicatingFilter(@NotNull Logger logger, @NotNull Duration window) {
+        this.logger = logger;
+        this.windowNanos = window.toNanos();
+    }
+
+    @Override
+    public Boolean apply(LogEntry entry) {
+        if (emitting.get()) {
+            return true;
+        }
+
+        String message = entry.message();
+        long now = System.nanoTime();
+        while (true) {
+            Run run = current.get();
+            if (run != null && run.level == entry.logLevel() && run.message.equals(message) && now - run.startNanos < windowNanos) {
+                run.repeats.incrementAndGet();
+                return false;
+            }
+            if (current.compareAndSet(run, new Run(entry.logLevel(), message, now))) {
+                if (run != null) {
+                    summarize(run);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends the current run and logs its summary if it had repeats. Entries logged afterwards start a new run.
+     */
+    @Override
+    public void flush() {
+        Run run = current.getAndSet(null);
+        if (run != null) {
+            summarize(run);
+        }
+    }
+
+    private void summarize(Run run) {
+        long repeats = run.repeats.get();
+        if (repeats == 0L) {
+            return;
+        }
+
+        Thread thread = Thread.currentThread();
+        LogEntry summary = new LogEntry(logger.getName(), run.level, "Previous message repeated " + repeats + " times: " + run.message,
+                System.currentTimeMillis(), thread.getId(), thread.getName(), null, new LogProperties());
+        summary.addProperty(REPEATED_PROPERTY, repeats);
+
+        emitting.set(Boolean.TRUE);
+        try {
+            logger.log(run.level, summary);
+        } finally {
+            emitting.set(Boolean.FALSE);
+        }
+    }
+
+    private static final class Run {
+        private final LogLevel level;
+        private final String message;
+        private final long startNanos;
+        private final AtomicLong repeats = new AtomicLong();
+
+        private Run(LogLevel level, String message, long startNanos) {
+            this.level = level;
+            this.message = message;
+            this.startNanos = startNanos;
+        }
+    }
+}
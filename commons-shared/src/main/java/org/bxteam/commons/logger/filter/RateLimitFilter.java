@@ -0,0 +1,121 @@
+package org.bxteam.commons.logger.filter;
+
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Listener that rate limits entries per message template with a token bucket.
+ * <p>
+ * Entries logged with a template share the bucket of that template, whatever their arguments are;
+ * other entries are keyed by their message. Each bucket allows {@code burst} entries at once and refills
+ * at {@code permitsPerSecond}. The bucket is an {@link AtomicLong} holding the time at which it
+ * will be full again, so taking a permit is one read and one CAS, without locks. The first entry let
+ * through after some were suppressed carries their number in the {@value #SUPPRESSED_PROPERTY} property.
+ * <p>
+ * Register it with {@link Logger#addListener(Function)}.
+ */
+public final class RateLimitFilter implements Function<LogEntry, Boolean> {
+    /**
+     * The property holding the number of entries suppressed before the entry it is attached to.
+     */
+    public static final String SUPPRESSED_PROPERTY = "suppressed";
+    /**
+     * The default maximum number of buckets kept before all of them are reset.
+     */
+    public static final int DEFAULT_MAX_KEYS = 4096;
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxKeys;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final LongAdder suppressedEntries = new LongAdder();
+
+    /**
+     * Constructs a RateLimitFilter.
+     *
+     * @param permitsPerSecond the number of entries per template allowed per second on average
+     * @param burst            the number of entries per template allowed at once
+     * @param maxKeys          the maximum number of buckets kept before all of them are reset
+     */
+    public RateLimitFilter(double permitsPerSecond, int burst, int maxKeys) {
+        if (permitsPerSecond <= 0D || burst < 1 || maxKeys < 1) {
+            throw new IllegalArgumentException("Rate, burst and key limit must be positive");
+        }
+        this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1L) / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Constructs a RateLimitFilter keeping at most {@link #DEFAULT_MAX_KEYS} buckets.
+     *
+     * @param permitsPerSecond the number of entries per template allowed per second on average
+     * @param burst            the number of entries per template allowed at once
+     */
+    public RateLimitFilter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, DEFAULT_MAX_KEYS);
+    }
+
+    @Override
+    public Boolean apply(LogEntry entry) {
+        String key = entry.messageTemplate() != null ? entry.messageTemplate() : entry.message();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                buckets.clear();
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+        }
+
+        if (!bucket.tryAcquire(System.nanoTime(), intervalNanos, toleranceNanos)) {
+            bucket.suppressed.incrementAndGet();
+            suppressedEntries.increment();
+            return false;
+        }
+        if (bucket.suppressed.get() > 0L) {
+            long suppressed = bucket.suppressed.getAndSet(0L);
+            if (suppressed > 0L) {
+                entry.addProperty(SUPPRESSED_PROPERTY, suppressed);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of entries suppressed by this filter.
+     *
+     * @return the suppressed entry count
+     */
+    public long getSuppressedCount() {
+        return suppressedEntries.sum();
+    }
+
+    /**
+     * A token bucket stored as its theoretical arrival time, the moment it would be full again.
+     */
+    private static final class Bucket {
+        private final AtomicLong arrivalTime = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong suppressed = new AtomicLong();
+
+        boolean tryAcquire(long now, long intervalNanos, long toleranceNanos) {
+            long arrival = arrivalTime.get();
+            while (true) {
+                long start = Math.max(arrival, now);
+                if (start - now > toleranceNanos) {
+                    return false;
+                }
+                if (arrivalTime.compareAndSet(arrival, start + intervalNanos)) {
+                    return true;
+                }
+                arrival = arrivalTime.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.bxteam.commons.logger.metrics;
+
+import org.bxteam.commons.logger.appender.Appender;
+import org.bxteam.commons.logger.dispatch.LogDispatcher;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point-in-time snapshot of the counters of a {@link LogDispatcher}.
+ * Rates are computed by comparing two snapshots of the same dispatcher.
+ *
+ * @param name            the name of the dispatcher
+ * @param capturedAtNanos the {@link System#nanoTime()} at which the snapshot was taken
+ * @param queueSize       the number of entries waiting to be delivered
+ * @param capacity        the number of slots in the queue
+ * @param enqueuedCount   the number of entries handed to the consumer thread
+ * @param drainedCount    the number of entries taken off the queue by the consumer thread
+ * @param droppedCount    the number of entries discarded because the queue was full
+ * @param inlineCount     the number of entries delivered on the calling thread
+ * @param appendLatencies the append latency of every appender the dispatcher has called
+ */
+public record DispatcherMetrics(
+        @NotNull String name,
+        long capturedAtNanos,
+        int queueSize,
+        int capacity,
+        long enqueuedCount,
+        long drainedCount,
+        long droppedCount,
+        long inlineCount,
+        @NotNull Map<Appender, LatencyHistogram.Snapshot> appendLatencies
+) {
+    /**
+     * Returns the number of entries enqueued per second since an earlier snapshot.
+     *
+     * @param earlier an earlier snapshot of the same dispatcher
+     * @return the enqueue rate in entries per second
+     */
+    public double enqueueRate(@NotNull DispatcherMetrics earlier) {
+        return rate(enqueuedCount - earlier.enqueuedCount, earlier);
+    }
+
+    /**
+     * Returns the number of entries drained per second since an earlier snapshot.
+     *
+     * @param earlier an earlier snapshot of the same dispatcher
+     * @return the drain rate in entries per second
+     */
+    public double drainRate(@NotNull DispatcherMetrics earlier) {
+        return rate(drainedCount - earlier.drainedCount, earlier);
+    }
+
+    private double rate(long delta, DispatcherMetrics earlier) {
+        long elapsed = capturedAtNanos - earlier.capturedAtNanos;
+        return elapsed <= 0L ? 0D : delta * (double) TimeUnit.SECONDS.toNanos(1L) / elapsed;
+    }
+}
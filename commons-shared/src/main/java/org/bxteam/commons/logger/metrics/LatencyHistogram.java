@@ -0,0 +1,165 @@
+package org.bxteam.commons.logger.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of durations in nanoseconds, in the style of HdrHistogram.
+ * <p>
+ * Each power of two is split into 32 linear sub-buckets, so any recorded value is reported within about
+ * 3% of its real value while the whole range of {@code long} fits in fewer than 2000 counters. Recording
+ * is a few shifts and one atomic increment and never allocates. Readers take a {@link #snapshot()}.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a duration. Negative durations are recorded as zero.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        counts.getAndIncrement(indexOf(value));
+        totalNanos.addAndGet(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0L);
+        }
+        totalNanos.set(0L);
+        maxNanos.set(0L);
+    }
+
+    /**
+     * Copies the recorded values into an immutable snapshot.
+     * Values recorded while the copy is taken may or may not be included.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, totalNanos.get(), maxNanos.get());
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long lowest = (long) (SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1L;
+    }
+
+    /**
+     * An immutable copy of a {@link LatencyHistogram}.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        private Snapshot(long[] counts, long count, long totalNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return the count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the mean of the recorded values.
+         *
+         * @return the mean in nanoseconds, or 0 if nothing was recorded
+         */
+        public double getMeanNanos() {
+            return count == 0L ? 0D : (double) totalNanos / count;
+        }
+
+        /**
+         * Returns the largest recorded value.
+         *
+         * @return the maximum in nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Returns the value below which the given percentage of the recorded values fall.
+         *
+         * @param percentile the percentile, from 0 to 100
+         * @return the value in nanoseconds, or 0 if nothing was recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0L) {
+                return 0L;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(Math.min(100D, Math.max(0D, percentile)) / 100D * count));
+            long seen = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueAt(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        /**
+         * Returns a one-line summary in microseconds, suitable for a command or a log line.
+         *
+         * @return the summary
+         */
+        @Override
+        public String toString() {
+            return "count=" + count
+                    + " mean=" + micros((long) getMeanNanos())
+                    + " p50=" + micros(getValueAtPercentile(50D))
+                    + " p99=" + micros(getValueAtPercentile(99D))
+                    + " p99.9=" + micros(getValueAtPercentile(99.9D))
+                    + " max=" + micros(maxNanos);
+        }
+
+        private static String micros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos) + "us";
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.bxteam.commons.logger.metrics;
+
+import org.bxteam.commons.logger.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A point-in-time snapshot of a {@link Logger} and the dispatchers delivering its entries.
+ * Dispatchers may be shared with other loggers, in which case their counters cover all of them.
+ *
+ * @param loggerName    the name of the logger
+ * @param filteredCount the number of entries rejected by the logger's listeners
+ * @param dispatchers   the metrics of every dispatcher the logger routes entries to
+ */
+public record LoggerMetrics(
+        @NotNull String loggerName,
+        long filteredCount,
+        @NotNull List<DispatcherMetrics> dispatchers
+) {
+    /**
+     * Returns the total number of entries waiting in the logger's dispatchers.
+     *
+     * @return the combined queue depth
+     */
+    public int queueSize() {
+        int size = 0;
+        for (DispatcherMetrics dispatcher : dispatchers) {
+            size += dispatcher.queueSize();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the total number of entries dropped by the logger's dispatchers.
+     *
+     * @return the combined dropped count
+     */
+    public long droppedCount() {
+        long dropped = 0L;
+        for (DispatcherMetrics dispatcher : dispatchers) {
+            dropped += dispatcher.droppedCount();
+        }
+        return dropped;
+    }
+}
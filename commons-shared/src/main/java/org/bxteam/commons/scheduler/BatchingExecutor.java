@@ -0,0 +1,205 @@
+package org.bxteam.commons.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bxteam.commons.logger.LogContext;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Front-end of a {@link Scheduler} which coalesces the tasks submitted for the same target during a tick
+ * into a single platform task, instead of scheduling one task per submission:
+ * <pre>
+ * BatchingExecutor batching = new BatchingExecutor(scheduler);
+ * for (Result result : results) {
+ *     batching.execute(result.location(), () -&gt; result.apply());
+ * }
+ * </pre>
+ * Every target (the global region, a region, an entity) has a lock-free queue. The first submission to an idle
+ * target schedules a drain task with {@link Scheduler#execute}; later submissions only enqueue. The drain runs the
+ * tasks queued when it started and schedules itself again if more arrived in the meantime, so a task submitting to
+ * its own target runs on the next tick rather than in the same loop.
+ * <p>
+ * On Paper and Bukkit, where {@link Scheduler#isRegionized()} is false, region and entity tasks share the global
+ * queue. On Folia, region tasks are grouped by {@link RegionKey}, and the tasks of an entity removed before its
+ * drain ran are discarded, like the entity scheduler does.
+ * <p>
+ * Each task runs with the {@link LogContext} of the thread that submitted it. An exception thrown by a task is
+ * printed and does not prevent the other tasks of the batch from running.
+ */
+public class BatchingExecutor implements Executor {
+    private final Scheduler scheduler;
+    private final boolean regionized;
+    private final int regionShift;
+    private final Batch global;
+    private final Map<RegionKey, Batch> regions = new ConcurrentHashMap<>();
+    private final Map<Entity, Batch> entities = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a BatchingExecutor grouping region tasks by region section, with {@link RegionKey#DEFAULT_SHIFT}.
+     *
+     * @param scheduler the scheduler running the drain tasks
+     */
+    public BatchingExecutor(@NotNull Scheduler scheduler) {
+        this(scheduler, RegionKey.DEFAULT_SHIFT);
+    }
+
+    /**
+     * Constructs a BatchingExecutor.
+     *
+     * @param scheduler   the scheduler running the drain tasks
+     * @param regionShift the shift of the {@link RegionKey} region tasks are grouped by, must not exceed the
+     *                    region section grid exponent of the server
+     */
+    public BatchingExecutor(@NotNull Scheduler scheduler, int regionShift) {
+        this.scheduler = scheduler;
+        this.regionized = scheduler.isRegionized();
+        this.regionShift = RegionKey.checkShift(regionShift);
+        this.global = new Batch(null, null, null);
+    }
+
+    /**
+     * Queues a task for the next drain of the global region.
+     *
+     * @param runnable the task
+     */
+    @Override
+    public void execute(@NotNull Runnable runnable) {
+        global.submit(runnable);
+    }
+
+    /**
+     * Queues a task for the next drain of the region owning the location.
+     *
+     * @param location the location which the region executing should own
+     * @param runnable the task
+     */
+    public void execute(@NotNull Location location, @NotNull Runnable runnable) {
+        if (!regionized) {
+            global.submit(runnable);
+            return;
+        }
+        RegionKey key = RegionKey.of(location, regionShift);
+        Batch batch = regions.get(key);
+        if (batch == null) {
+            batch = regions.computeIfAbsent(key, k -> new Batch(k, location.clone(), null));
+        }
+        batch.submit(runnable);
+    }
+
+    /**
+     * Queues a task for the next drain of the region owning the entity.
+     *
+     * @param entity   the entity whose region should run the task
+     * @param runnable the task
+     */
+    public void execute(@NotNull Entity entity, @NotNull Runnable runnable) {
+        if (!regionized) {
+            global.submit(runnable);
+            return;
+        }
+        Batch batch = entities.get(entity);
+        if (batch == null) {
+            batch = entities.computeIfAbsent(entity, e -> new Batch(null, null, e));
+        }
+        batch.submit(runnable);
+    }
+
+    /**
+     * Returns the number of tasks submitted and not run yet.
+     *
+     * @return the number of pending tasks
+     */
+    public int getPendingTasks() {
+        int pending = global.pending.get();
+        for (Batch batch : regions.values()) {
+            pending += batch.pending.get();
+        }
+        for (Batch batch : entities.values()) {
+            pending += batch.pending.get();
+        }
+        return pending;
+    }
+
+    private final class Batch implements Runnable {
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final RegionKey regionKey;
+        private final Location location;
+        private final Entity entity;
+
+        private Batch(RegionKey regionKey, Location location, Entity entity) {
+            this.regionKey = regionKey;
+            this.location = location;
+            this.entity = entity;
+        }
+
+        private void submit(Runnable runnable) {
+            queue.offer(LogContext.propagate(runnable));
+            // Only the submission that makes the batch non-empty schedules a drain.
+            if (pending.getAndIncrement() == 0) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            // The drain must not inherit the context of the submission that happened to schedule it.
+            LogContext.Scope scope = LogContext.empty().attach();
+            try {
+                if (entity != null) {
+                    scheduler.supply(entity, () -> {
+                        run();
+                        return null;
+                    }).whenComplete((result, e) -> {
+                        if (e != null) {
+                            discard();
+                        }
+                    });
+                } else if (location != null) {
+                    scheduler.execute(location, this);
+                } else {
+                    scheduler.execute(this);
+                }
+            } finally {
+                scope.close();
+            }
+        }
+
+        @Override
+        public void run() {
+            int count = pending.get();
+            for (int i = 0; i < count; i++) {
+                try {
+                    queue.poll().run();
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+            }
+            complete(count);
+        }
+
+        private void discard() {
+            int count = pending.get();
+            for (int i = 0; i < count; i++) {
+                queue.poll();
+            }
+            complete(count);
+        }
+
+        private void complete(int count) {
+            if (pending.addAndGet(-count) > 0) {
+                schedule();
+            } else if (regionKey != null) {
+                regions.remove(regionKey, this);
+            } else if (entity != null) {
+                entities.remove(entity, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.bxteam.commons.scheduler;
+
+import org.bukkit.Location;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Identifies a square of chunks, {@code 1 << shift} chunks wide, which is always owned by a single region.
+ * <p>
+ * Folia assigns whole sections of {@code 1 << region-section-grid-exponent} chunks to a region, so keys with a
+ * shift no larger than that exponent never span two regions. A shift of 0 identifies a single chunk.
+ *
+ * @param world the UID of the world
+ * @param x     the x coordinate of the square, in chunks shifted right by the shift
+ * @param z     the z coordinate of the square, in chunks shifted right by the shift
+ */
+public record RegionKey(@NotNull UUID world, int x, int z) {
+    /**
+     * Largest shift accepted, the square is then 65536 chunks wide.
+     */
+    public static final int MAX_SHIFT = 16;
+
+    /**
+     * Shift matching Folia's default region section grid exponent, so a key covers a whole section of
+     * 16 by 16 chunks.
+     */
+    public static final int DEFAULT_SHIFT = 4;
+
+    /**
+     * Returns the key of the square containing the location.
+     *
+     * @param location the location, must have a non-null world
+     * @param shift    the number of bits the chunk coordinates are shifted right by
+     * @return the key
+     */
+    public static RegionKey of(@NotNull Location location, int shift) {
+        checkShift(shift);
+        if (location.getWorld() == null) {
+            throw new IllegalArgumentException("Location has no world");
+        }
+        return new RegionKey(location.getWorld().getUID(), location.getBlockX() >> 4 >> shift, location.getBlockZ() >> 4 >> shift);
+    }
+
+    /**
+     * Checks that the shift is between 0 and {@link #MAX_SHIFT}.
+     *
+     * @param shift the shift
+     * @return the shift
+     */
+    public static int checkShift(int shift) {
+        if (shift < 0 || shift > MAX_SHIFT) {
+            throw new IllegalArgumentException("Shift must be between 0 and " + MAX_SHIFT + ": " + shift);
+        }
+        return shift;
+    }
+}
@@ -5,9 +5,16 @@ import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.plugin.Plugin;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public interface Scheduler {
     /**
@@ -45,6 +52,14 @@ public interface Scheduler {
      */
     boolean isRegionThread(Location location);
 
+    /**
+     * <b>Folia</b>: Returns true, regions are ticked in parallel by different threads <br>
+     * <b>Paper & Bukkit</b>: Returns false, every region is ticked by the main thread
+     */
+    default boolean isRegionized() {
+        return false;
+    }
+
     /**
      * Schedules a task to be executed on the next tick <br>
      * <b>Folia & Paper</b>: ...on the global region <br>
@@ -158,6 +173,38 @@ public interface Scheduler {
         return runTaskTimer(runnable, delay, period);
     }
 
+    /**
+     * Processes the workload every tick, starting on the next one, for at most the budget per tick <br>
+     * <b>Folia & Paper</b>: ...on the global region <br>
+     * <b>Bukkit</b>: ...on the main thread
+     *
+     * @param workload    The workload to process
+     * @param budgetNanos The maximum time spent on the workload per tick, in nanoseconds
+     * @return The {@link TimeSlicedTask} processing the workload
+     */
+    default TimeSlicedTask runTimeSliced(Workload workload, long budgetNanos) {
+        TimeSlicedTask task = new TimeSlicedTask(workload, budgetNanos);
+        task.start(runTaskTimer(task, 1L, 1L));
+        return task;
+    }
+
+    /**
+     * <b>Folia & Paper</b>: Processes the workload every tick, starting on the next one, on the region which
+     * owns the location for at most the budget per tick
+     * <p>
+     * <b>Bukkit</b>: same as {@link #runTimeSliced(Workload, long)}
+     *
+     * @param location    The location which the region executing should own
+     * @param workload    The workload to process
+     * @param budgetNanos The maximum time spent on the workload per tick, in nanoseconds
+     * @return The {@link TimeSlicedTask} processing the workload
+     */
+    default TimeSlicedTask runTimeSliced(Location location, Workload workload, long budgetNanos) {
+        TimeSlicedTask task = new TimeSlicedTask(workload, budgetNanos);
+        task.start(runTaskTimer(location, task, 1L, 1L));
+        return task;
+    }
+
     /**
      * Schedules the specified task to be executed asynchronously immediately
      *
@@ -193,21 +240,194 @@ public interface Scheduler {
      * Note: The Future.get() methods must NOT be called from the main thread.
      * <p>
      * Note2: There is at least an average of 10ms latency until the isDone() method returns true.
+     * <p>
+     * An exception thrown by the task completes the future exceptionally.
      *
      * @param task Task to be executed
      */
     default <T> Future<T> callSyncMethod(final Callable<T> task) {
         CompletableFuture<T> completableFuture = new CompletableFuture<>();
-        execute(() -> {
-            try {
-                completableFuture.complete(task.call());
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
+        try {
+            execute(() -> {
+                try {
+                    completableFuture.complete(task.call());
+                } catch (Throwable e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            completableFuture.completeExceptionally(e);
+        }
         return completableFuture;
     }
 
+    /**
+     * Returns an executor running tasks like {@link #execute(Runnable)} <br>
+     * <b>Folia & Paper</b>: ...on the global region <br>
+     * <b>Bukkit</b>: ...on the main thread
+     * <p>
+     * The executor can be passed to the {@code *Async} methods of {@link CompletableFuture} to continue a
+     * pipeline on the server thread without blocking it.
+     *
+     * @return the executor
+     */
+    default Executor globalExecutor() {
+        return this::execute;
+    }
+
+    /**
+     * <b>Folia & Paper</b>: Returns an executor running tasks on the region which owns the location
+     * <p>
+     * <b>Bukkit</b>: same as {@link #globalExecutor()}
+     *
+     * @param location The location which the region executing should own
+     * @return the executor
+     */
+    default Executor regionExecutor(Location location) {
+        return runnable -> execute(location, runnable);
+    }
+
+    /**
+     * <b>Folia & Paper</b>: Returns an executor running tasks on the region which owns the given entity.
+     * Tasks submitted after the entity was removed are rejected with a
+     * {@link java.util.concurrent.RejectedExecutionException}
+     * <p>
+     * <b>Bukkit</b>: same as {@link #globalExecutor()}
+     *
+     * @param entity The entity whose location the region executing should own
+     * @return the executor
+     */
+    default Executor entityExecutor(Entity entity) {
+        return runnable -> execute(entity, runnable);
+    }
+
+    /**
+     * Returns an executor running every task asynchronously like {@link #runTaskAsynchronously(Runnable)}
+     *
+     * @return the executor
+     */
+    default Executor asyncExecutor() {
+        return this::runTaskAsynchronously;
+    }
+
+    /**
+     * Computes a value on the thread of {@link #globalExecutor()}
+     *
+     * @param supplier The function computing the value
+     * @return a future completed with the value, or exceptionally if the supplier throws or the task is rejected
+     */
+    default <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        return supply(globalExecutor(), supplier);
+    }
+
+    /**
+     * Computes a value on the thread of {@link #regionExecutor(Location)}
+     *
+     * @param location The location which the region executing should own
+     * @param supplier The function computing the value
+     * @return a future completed with the value, or exceptionally if the supplier throws or the task is rejected
+     */
+    default <T> CompletableFuture<T> supply(Location location, Supplier<T> supplier) {
+        return supply(regionExecutor(location), supplier);
+    }
+
+    /**
+     * Computes a value on the thread of {@link #entityExecutor(Entity)}
+     *
+     * @param entity   The entity whose location the region executing should own
+     * @param supplier The function computing the value
+     * @return a future completed with the value, or exceptionally if the supplier throws or the task is rejected
+     */
+    default <T> CompletableFuture<T> supply(Entity entity, Supplier<T> supplier) {
+        return supply(entityExecutor(entity), supplier);
+    }
+
+    /**
+     * Computes a value on the thread of {@link #asyncExecutor()}
+     *
+     * @param supplier The function computing the value
+     * @return a future completed with the value, or exceptionally if the supplier throws or the task is rejected
+     */
+    default <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return supply(asyncExecutor(), supplier);
+    }
+
+    /**
+     * Computes a value with the specified executor. Unlike {@link CompletableFuture#supplyAsync(Supplier, Executor)},
+     * an executor rejecting the task completes the future exceptionally instead of throwing to the caller.
+     *
+     * @param executor The executor running the supplier
+     * @param supplier The function computing the value
+     * @return a future completed with the value, or exceptionally if the supplier throws or the task is rejected
+     */
+    static <T> CompletableFuture<T> supply(Executor executor, Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(supplier.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Applies the action to every item on the thread owning the item's location <br>
+     * <b>Folia</b>: ...grouping the items by owning region and scheduling one task per region <br>
+     * <b>Paper & Bukkit</b>: ...in a single task on the main thread
+     * <p>
+     * An exception thrown by the action stops the task processing its group and completes the future
+     * exceptionally.
+     *
+     * @param items   The items to process
+     * @param locator The function returning the location of an item, must have a non-null world
+     * @param action  The action applied to each item
+     * @return a future completed once every item was processed
+     */
+    default <T> CompletableFuture<Void> runForEach(Collection<? extends T> items, Function<? super T, Location> locator,
+                                                   Consumer<? super T> action) {
+        if (items.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<T> copy = new ArrayList<>(items);
+        return supply(() -> {
+            copy.forEach(action);
+            return null;
+        });
+    }
+
+    /**
+     * Applies the action to every location on the thread owning it, same as
+     * {@link #runForEach(Collection, Function, Consumer)}
+     *
+     * @param locations The locations to process, must have a non-null world
+     * @param action    The action applied to each location
+     * @return a future completed once every location was processed
+     */
+    default CompletableFuture<Void> runForEach(Collection<? extends Location> locations, Consumer<? super Location> action) {
+        return runForEach(locations, Function.identity(), action);
+    }
+
+    /**
+     * Applies the action to every entity on the thread owning it <br>
+     * <b>Folia</b>: ...grouping the entities by the region owning their location and scheduling one task per
+     * region. An entity which moved to another region in the meantime is handed to its entity scheduler,
+     * and an entity removed before its task ran is skipped <br>
+     * <b>Paper & Bukkit</b>: ...in a single task on the main thread
+     *
+     * @param entities The entities to process
+     * @param action   The action applied to each entity
+     * @return a future completed once every entity was processed
+     */
+    default <E extends Entity> CompletableFuture<Void> runForEachEntity(Collection<? extends E> entities, Consumer<? super E> action) {
+        return runForEach(entities, Entity::getLocation, action);
+    }
+
     /**
      * Schedules a task to be executed on the global region
      *
@@ -0,0 +1,159 @@
+package org.bxteam.commons.scheduler;
+
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Repeating task which processes a {@link Workload} for at most a budget of time per tick, so that a large
+ * job can run on a tick thread without a lag spike. Created with {@link Scheduler#runTimeSliced}.
+ * <p>
+ * Every tick the task processes units until the budget is used up, checking the time between two units.
+ * At least one unit is processed per tick, so a unit should take less time than the budget.
+ * <p>
+ * The budget adapts to the measured tick time. The task runs once per tick, so the time between two runs is
+ * the duration of a tick; once it exceeds {@link #TICK_NANOS} by more than {@link #LAG_TOLERANCE_NANOS}, the
+ * server is falling behind and the budget is halved, down to a sixteenth of the maximum. While ticks keep
+ * their pace, the budget grows back to the maximum by an eighth of it per tick.
+ */
+public class TimeSlicedTask implements Task, Runnable {
+    /**
+     * Duration of a tick at 20 ticks per second, in nanoseconds.
+     */
+    public static final long TICK_NANOS = 50_000_000L;
+
+    /**
+     * Time a tick may exceed {@link #TICK_NANOS} by before the budget is reduced, in nanoseconds.
+     */
+    public static final long LAG_TOLERANCE_NANOS = 5_000_000L;
+
+    private final Workload workload;
+    private final long maxBudgetNanos;
+    private final long minBudgetNanos;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private volatile Task task;
+    private volatile boolean done;
+    private volatile boolean running;
+    private volatile long budgetNanos;
+    private long lastRun;
+
+    /**
+     * Constructs a TimeSlicedTask.
+     *
+     * @param workload       the workload to process
+     * @param maxBudgetNanos the maximum time spent on the workload per tick, in nanoseconds
+     */
+    TimeSlicedTask(@NotNull Workload workload, long maxBudgetNanos) {
+        if (maxBudgetNanos <= 0) {
+            throw new IllegalArgumentException("Budget must be positive: " + maxBudgetNanos);
+        }
+        this.workload = workload;
+        this.maxBudgetNanos = maxBudgetNanos;
+        this.minBudgetNanos = Math.max(1L, maxBudgetNanos / 16);
+        this.budgetNanos = maxBudgetNanos;
+    }
+
+    /**
+     * Attaches the platform task running this task every tick.
+     *
+     * @param task the repeating platform task
+     */
+    void start(@NotNull Task task) {
+        this.task = task;
+        if (done) {
+            task.cancel();
+        }
+    }
+
+    @Override
+    public void run() {
+        if (done) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (lastRun != 0) {
+            adapt(now - lastRun);
+        }
+        lastRun = now;
+
+        long deadline = now + budgetNanos;
+        running = true;
+        try {
+            do {
+                if (!workload.process()) {
+                    finish();
+                    completion.complete(null);
+                    return;
+                }
+            } while (System.nanoTime() - deadline < 0 && !done);
+        } catch (Throwable e) {
+            finish();
+            completion.completeExceptionally(e);
+        } finally {
+            running = false;
+        }
+    }
+
+    private void adapt(long tickNanos) {
+        if (tickNanos > TICK_NANOS + LAG_TOLERANCE_NANOS) {
+            budgetNanos = Math.max(minBudgetNanos, budgetNanos / 2);
+        } else {
+            budgetNanos = Math.min(maxBudgetNanos, budgetNanos + maxBudgetNanos / 8);
+        }
+    }
+
+    private void finish() {
+        done = true;
+        Task task = this.task;
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Returns the future completed once the workload is exhausted, exceptionally if it throws, and
+     * cancelled if this task is cancelled.
+     *
+     * @return the completion future
+     */
+    public CompletableFuture<Void> getFuture() {
+        return completion;
+    }
+
+    /**
+     * Returns the time the task may currently spend on the workload per tick.
+     *
+     * @return the budget in nanoseconds
+     */
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    @Override
+    public void cancel() {
+        finish();
+        completion.cancel(false);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return completion.isCancelled();
+    }
+
+    @Override
+    public boolean isCurrentlyRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isRepeatingTask() {
+        return true;
+    }
+
+    @Override
+    public Plugin getPlugin() {
+        Task task = this.task;
+        return task == null ? null : task.getPlugin();
+    }
+}
@@ -0,0 +1,271 @@
+package org.bxteam.commons.scheduler;
+
+import org.bukkit.plugin.Plugin;
+import org.bxteam.commons.logger.LogContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Async backend of a {@link Scheduler} which runs every async task on its own virtual thread, so that thousands of
+ * tasks blocking on I/O do not starve the pool the platform sizes for CPU work.
+ * <p>
+ * Virtual threads require Java 21 while the library targets Java 17, so they are looked up by reflection.
+ * {@link #create(Plugin)} returns null on older runtimes, and the scheduler then keeps using the platform's
+ * async scheduler.
+ * <p>
+ * Delays are measured by a single platform thread which hands each due task to a new virtual thread. A repeating
+ * task is scheduled again once a run finished, one period after that run started, so runs of a task never overlap.
+ * <p>
+ * The platform only cancels the tasks it knows about when a plugin is disabled, so this backend checks
+ * {@link Plugin#isEnabled()} itself. Once the plugin is disabled, the next task scheduled or due shuts the backend
+ * down, as does {@link #cancelTasks()}, and no code of the plugin runs anymore. The threads are then released,
+ * so they do not keep the class loader of the plugin alive across a reload.
+ */
+public class VirtualThreadAsyncScheduler {
+    private static final long TICK_NANOS = 50_000_000L;
+
+    private final Plugin plugin;
+    private final ExecutorService executor;
+    private final ScheduledThreadPoolExecutor timer;
+    private final Set<VirtualThreadTask> tasks = ConcurrentHashMap.newKeySet();
+    private volatile boolean shutdown;
+
+    private VirtualThreadAsyncScheduler(Plugin plugin, ExecutorService executor) {
+        this.plugin = plugin;
+        this.executor = executor;
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, plugin.getName() + "-async-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+        this.timer.setKeepAliveTime(1L, TimeUnit.MINUTES);
+        this.timer.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns whether the runtime supports virtual threads.
+     *
+     * @return true on Java 21 and newer
+     */
+    public static boolean isSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates a backend running the async tasks of the plugin on virtual threads.
+     *
+     * @param plugin the plugin owning the tasks
+     * @return the backend, or null if the runtime does not support virtual threads
+     */
+    @Nullable
+    public static VirtualThreadAsyncScheduler create(@NotNull Plugin plugin) {
+        if (!isSupported()) {
+            return null;
+        }
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, plugin.getName() + "-async-", 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            ExecutorService executor = (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+            return new VirtualThreadAsyncScheduler(plugin, executor);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Virtual threads are a preview feature on Java 19 and 20 and fail unless it is enabled.
+            return null;
+        }
+    }
+
+    /**
+     * Runs the task on a new virtual thread immediately.
+     *
+     * @param runnable The task to execute
+     * @return The {@link Task} that represents the scheduled task
+     */
+    public Task runTask(@NotNull Runnable runnable) {
+        return schedule(runnable, 0L, 0L);
+    }
+
+    /**
+     * Runs the task on a new virtual thread after the delay.
+     *
+     * @param runnable The task to execute
+     * @param delay    The delay, in ticks
+     * @return The {@link Task} that represents the scheduled task
+     */
+    public Task runTaskLater(@NotNull Runnable runnable, long delay) {
+        return schedule(runnable, delay * TICK_NANOS, 0L);
+    }
+
+    /**
+     * Runs the task on a new virtual thread after the delay and then once per period.
+     *
+     * @param runnable The task to execute
+     * @param delay    The initial delay, in ticks
+     * @param period   The period, in ticks
+     * @return The {@link Task} that represents the scheduled task
+     */
+    public Task runTaskTimer(@NotNull Runnable runnable, long delay, long period) {
+        return schedule(runnable, delay * TICK_NANOS, Math.max(1L, period) * TICK_NANOS);
+    }
+
+    /**
+     * Cancels every task scheduled with this backend. Running tasks are not interrupted.
+     * If the plugin is disabled, the backend is {@link #shutdown() shut down} as well.
+     */
+    public void cancelTasks() {
+        if (!plugin.isEnabled()) {
+            shutdown();
+            return;
+        }
+        for (VirtualThreadTask task : tasks) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Cancels every task and stops the threads of this backend. Running tasks are not interrupted, and
+     * tasks scheduled afterwards are returned cancelled without running.
+     */
+    public void shutdown() {
+        shutdown = true;
+        for (VirtualThreadTask task : tasks) {
+            task.cancel();
+        }
+        timer.shutdownNow();
+        executor.shutdown();
+    }
+
+    /**
+     * Returns whether this backend was shut down, explicitly or because the plugin was disabled.
+     *
+     * @return true if no more tasks are run
+     */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    private Task schedule(Runnable runnable, long delayNanos, long periodNanos) {
+        VirtualThreadTask task = new VirtualThreadTask(LogContext.propagate(runnable), periodNanos);
+        if (shutdown || !plugin.isEnabled()) {
+            shutdown();
+            task.cancelled = true;
+            return task;
+        }
+        tasks.add(task);
+        task.schedule(delayNanos);
+        return task;
+    }
+
+    private final class VirtualThreadTask implements Task, Runnable {
+        private final Runnable runnable;
+        private final long periodNanos;
+        private volatile Future<?> pending;
+        private volatile boolean cancelled;
+        private volatile boolean running;
+
+        private VirtualThreadTask(Runnable runnable, long periodNanos) {
+            this.runnable = runnable;
+            this.periodNanos = periodNanos;
+        }
+
+        private void schedule(long delayNanos) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                if (delayNanos <= 0) {
+                    pending = executor.submit(this);
+                } else {
+                    pending = timer.schedule(this::submit, delayNanos, TimeUnit.NANOSECONDS);
+                }
+            } catch (RejectedExecutionException e) {
+                // The backend was shut down concurrently.
+                cancel();
+            }
+        }
+
+        private void submit() {
+            if (cancelled) {
+                return;
+            }
+            try {
+                pending = executor.submit(this);
+            } catch (RejectedExecutionException e) {
+                cancel();
+            }
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            if (!plugin.isEnabled()) {
+                shutdown();
+                return;
+            }
+            long start = System.nanoTime();
+            running = true;
+            try {
+                runnable.run();
+            } catch (Throwable e) {
+                plugin.getLogger().log(Level.WARNING, "Plugin " + plugin.getName() + " generated an exception while executing an async task", e);
+            } finally {
+                running = false;
+            }
+            if (periodNanos > 0 && !cancelled) {
+                schedule(start + periodNanos - System.nanoTime());
+            } else {
+                tasks.remove(this);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            tasks.remove(this);
+            Future<?> pending = this.pending;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCurrentlyRunning() {
+            return running;
+        }
+
+        @Override
+        public boolean isRepeatingTask() {
+            return periodNanos > 0;
+        }
+
+        @Override
+        public Plugin getPlugin() {
+            return plugin;
+        }
+    }
+}
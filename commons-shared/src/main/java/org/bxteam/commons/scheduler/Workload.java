@@ -0,0 +1,51 @@
+package org.bxteam.commons.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Job processed one unit at a time by a {@link TimeSlicedTask}, which stops between two units once its
+ * budget for the tick is used up.
+ */
+@FunctionalInterface
+public interface Workload {
+    /**
+     * Processes the next unit of work.
+     *
+     * @return false if no work was left, true otherwise
+     */
+    boolean process();
+
+    /**
+     * Returns a workload applying the action to each element of the iterator.
+     *
+     * @param iterator the elements
+     * @param action   the action applied to each element
+     * @param <T>      the element type
+     * @return the workload
+     */
+    static <T> Workload of(@NotNull Iterator<T> iterator, @NotNull Consumer<? super T> action) {
+        return () -> {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            action.accept(iterator.next());
+            return true;
+        };
+    }
+
+    /**
+     * Returns a workload applying the action to each element of the spliterator.
+     *
+     * @param spliterator the elements
+     * @param action      the action applied to each element
+     * @param <T>         the element type
+     * @return the workload
+     */
+    static <T> Workload of(@NotNull Spliterator<T> spliterator, @NotNull Consumer<? super T> action) {
+        return () -> spliterator.tryAdvance(action);
+    }
+}
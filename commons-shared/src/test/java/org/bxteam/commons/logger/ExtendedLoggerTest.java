@@ -1,11 +1,16 @@
 package org.bxteam.commons.logger;
 
 import org.bxteam.commons.logger.appender.Appender;
+import org.bxteam.commons.logger.dispatch.LogDispatcher;
+import org.bxteam.commons.logger.dispatch.OverflowPolicy;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class ExtendedLoggerTest {
     static class TestAppender implements Appender {
@@ -55,4 +60,157 @@ public class ExtendedLoggerTest {
         LogEntry errorExceptionEntry = testAppender.logEntries.get(3);
         Assertions.assertEquals("This is a test exception.", errorExceptionEntry.message(), "ERROR exception message mismatch");
     }
+
+    @Test
+    public void testThrowableWithoutMessageIsDescribedByType() {
+        TestAppender testAppender = new TestAppender();
+        ExtendedLogger logger = new ExtendedLogger("TestLogger");
+        logger.addAppender(testAppender);
+
+        logger.error(new IllegalStateException());
+        logger.flush(Duration.ofSeconds(5));
+
+        Assertions.assertEquals("java.lang.IllegalStateException", testAppender.logEntries.get(0).message(), "Message should name the throwable type");
+    }
+
+    @Test
+    public void testParameterizedAndLazyMessages() throws InterruptedException {
+        TestAppender testAppender = new TestAppender();
+        ExtendedLogger logger = new ExtendedLogger("TestLogger");
+        logger.setCurrentLevel(LogLevel.INFO);
+        logger.addAppender(testAppender);
+
+        logger.debug(() -> {
+            throw new AssertionError("Supplier must not run below the current level");
+        });
+        logger.info("Player {} paid {} coins", "Steve", 250);
+        RuntimeException exception = new RuntimeException("Payment failed");
+        logger.error("Could not pay {}", "Alex", exception);
+
+        Thread.sleep(300);
+
+        Assertions.assertEquals(2, testAppender.logEntries.size(), "Expected 2 log entries");
+
+        LogEntry infoEntry = testAppender.logEntries.get(0);
+        Assertions.assertEquals("Player Steve paid 250 coins", infoEntry.message(), "Formatted message mismatch");
+        Assertions.assertEquals("Player {} paid {} coins", infoEntry.messageTemplate(), "Message template mismatch");
+
+        LogEntry errorEntry = testAppender.logEntries.get(1);
+        Assertions.assertEquals("Could not pay Alex", errorEntry.message(), "Formatted error message mismatch");
+        Assertions.assertSame(exception, errorEntry.throwable(), "Trailing throwable should be attached");
+    }
+
+    @Test
+    public void testReplaceAppenderWhileLogging() throws InterruptedException {
+        TestAppender oldAppender = new TestAppender();
+        TestAppender newAppender = new TestAppender();
+        ExtendedLogger logger = new ExtendedLogger("TestLogger", LogLevel.INFO, List.of(oldAppender), List.of());
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                logger.info("message " + i);
+            }
+        });
+        producer.start();
+        Thread.sleep(1);
+        Assertions.assertTrue(logger.replaceAppender(oldAppender, newAppender), "Old appender should be replaced");
+        producer.join();
+
+        Thread.sleep(300);
+
+        Assertions.assertEquals(List.of(newAppender), logger.getAppenders(), "Only the replacement should remain");
+        Assertions.assertEquals(1000, oldAppender.logEntries.size() + newAppender.logEntries.size(), "No entry may be lost or duplicated");
+    }
+
+    @Test
+    public void testShutdownDeliversAndClosesAppenders() {
+        List<String> events = new ArrayList<>();
+        Appender appender = new Appender() {
+            @Override
+            public void append(LogEntry entry) {
+                events.add("append " + entry.message());
+            }
+
+            @Override
+            public void close() {
+                events.add("close");
+            }
+        };
+        ExtendedLogger logger = new ExtendedLogger("TestLogger", LogLevel.INFO, List.of(appender), List.of());
+
+        for (int i = 0; i < 100; i++) {
+            logger.info("message " + i);
+        }
+
+        Assertions.assertEquals(0L, logger.shutdown(Duration.ofSeconds(5L)), "No entry should be lost");
+        Assertions.assertEquals(101, events.size(), "Expected every entry followed by close");
+        Assertions.assertEquals("close", events.get(100), "Appender must be closed after the last entry");
+        Assertions.assertTrue(logger.getAppenders().isEmpty(), "Appenders should be detached");
+    }
+
+    @Test
+    public void testShutdownCountsOnlyOwnDrops() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Appender blockingAppender = new Appender() {
+            @Override
+            public void append(LogEntry entry) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void close() {
+                // No resources to close.
+            }
+        };
+        LogDispatcher dispatcher = new LogDispatcher("Test-Dispatcher", 2, OverflowPolicy.DROP_NEWEST);
+        ExtendedLogger logger = new ExtendedLogger("TestLogger", LogLevel.INFO, List.of(blockingAppender), List.of(), dispatcher);
+
+        logger.info("blocking");
+        blocked.await();
+        for (int i = 0; i < 10; i++) {
+            logger.info("message " + i);
+        }
+        List<Appender> otherAppenders = List.of(new TestAppender());
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch(new LogEntry("OtherLogger", LogLevel.INFO, "other " + i, System.currentTimeMillis(), 1L, "main", null, new LogProperties()), otherAppenders);
+        }
+        release.countDown();
+
+        long ownDrops = dispatcher.getDroppedCount() - 5L;
+        Assertions.assertTrue(ownDrops > 0L, "Entries of this logger should have been dropped");
+        Assertions.assertEquals(ownDrops, logger.shutdown(Duration.ofSeconds(5L)), "Only the drops of this logger's appenders should be reported");
+        dispatcher.shutdown(5L, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testShutdownClosesAppendersWithinTheTimeout() {
+        List<Duration> closeTimeouts = new ArrayList<>();
+        Appender appender = new Appender() {
+            @Override
+            public void append(LogEntry entry) {
+            }
+
+            @Override
+            public void close() {
+                Assertions.fail("Shutdown should pass its remaining timeout to the appender");
+            }
+
+            @Override
+            public void close(Duration timeout) {
+                closeTimeouts.add(timeout);
+            }
+        };
+        ExtendedLogger logger = new ExtendedLogger("TestLogger", LogLevel.INFO, List.of(appender), List.of());
+        logger.info("message");
+
+        logger.shutdown(Duration.ofSeconds(1L));
+        Assertions.assertEquals(1, closeTimeouts.size(), "Appender should be closed once");
+        Assertions.assertTrue(closeTimeouts.get(0).compareTo(Duration.ofSeconds(1L)) <= 0, "Close should not get more than the shutdown timeout");
+    }
 }
@@ -0,0 +1,39 @@
+package org.bxteam.commons.logger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+public class LogContextTest {
+    @Test
+    public void testScopesRestorePreviousContext() {
+        try (LogContext.Scope outer = LogContext.put("player", "Steve")) {
+            try (LogContext.Scope inner = LogContext.put("action", "trade")) {
+                Assertions.assertEquals(2, LogContext.current().size(), "Nested scope should add to the context");
+            }
+            Assertions.assertNull(LogContext.current().get("action"), "Closed scope should remove its property");
+            Assertions.assertEquals("Steve", LogContext.current().get("player"), "Outer property should remain");
+        }
+        Assertions.assertTrue(LogContext.current().isEmpty(), "Context should be empty after all scopes are closed");
+    }
+
+    @Test
+    public void testContextFollowsTasksAndEntries() throws Exception {
+        ExtendedLoggerTest.TestAppender testAppender = new ExtendedLoggerTest.TestAppender();
+        ExtendedLogger logger = new ExtendedLogger("ContextLogger");
+        logger.addAppender(testAppender);
+
+        Runnable task;
+        try (LogContext.Scope scope = LogContext.put("requestId", 42L)) {
+            task = LogContext.propagate(() -> logger.info("Loaded profile"));
+        }
+        CompletableFuture.runAsync(task).get();
+        logger.info("Outside");
+        logger.flush(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(42L, testAppender.logEntries.get(0).properties().get("requestId"), "Entry should carry the captured context");
+        Assertions.assertTrue(testAppender.logEntries.get(1).properties().isEmpty(), "Entry outside the scope should have no context");
+    }
+}
@@ -0,0 +1,31 @@
+package org.bxteam.commons.logger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LoggerFactoryTest {
+    @Test
+    public void testLevelsAndAppendersAreInherited() throws InterruptedException {
+        ExtendedLoggerTest.TestAppender testAppender = new ExtendedLoggerTest.TestAppender();
+        ExtendedLogger subsystem = LoggerFactory.getLogger("factorytest.economy");
+        ExtendedLogger bank = LoggerFactory.getLogger("factorytest.economy.bank");
+        subsystem.addAppender(testAppender);
+
+        Assertions.assertSame(bank, LoggerFactory.getLogger("factorytest.economy.bank"), "Loggers should be cached by name");
+        Assertions.assertSame(subsystem, bank.getParent(), "Parent should follow the dotted name");
+        Assertions.assertFalse(bank.isEnabled(LogLevel.DEBUG), "DEBUG should be disabled by default");
+
+        LoggerFactory.setLevel("factorytest", LogLevel.DEBUG);
+        Assertions.assertTrue(bank.isEnabled(LogLevel.DEBUG), "Level change should reach descendants");
+
+        bank.debug("Vault opened");
+        Thread.sleep(300);
+
+        Assertions.assertEquals(1, testAppender.logEntries.size(), "Entry should reach the parent's appender");
+        Assertions.assertEquals("factorytest.economy.bank", testAppender.logEntries.get(0).loggerName(), "Logger name mismatch");
+
+        bank.setCurrentLevel(LogLevel.WARN);
+        LoggerFactory.setLevel("factorytest", LogLevel.INFO);
+        Assertions.assertEquals(LogLevel.WARN, bank.getCurrentLevel(), "An explicit level must not be overridden by a parent");
+    }
+}
@@ -0,0 +1,92 @@
+package org.bxteam.commons.logger.appender;
+
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogLevel;
+import org.bxteam.commons.logger.LogProperties;
+import org.bxteam.commons.logger.MessageFormatter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class BinaryLogAppenderTest {
+    private static String json(LogEntry entry) {
+        JsonEncoder encoder = new JsonEncoder(false);
+        encoder.encode(entry);
+        return encoder.toString();
+    }
+
+    @Test
+    public void testSegmentsDecodeToTheSameEntries() throws IOException {
+        Path directory = Files.createTempDirectory("binary-log");
+        List<LogEntry> written = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Object[] arguments = {"Steve", i, 2.5D, "café 😀"};
+            String template = "Player {} paid {} coins at rate {} in {}";
+            LogEntry entry = new LogEntry("Economy", LogLevel.INFO, MessageFormatter.format(template, arguments), 1700000000000L + i * 7L,
+                    42L, "Region Thread #3", i % 50 == 0 ? new IllegalStateException("Failure " + i, new RuntimeException()) : null,
+                    new LogProperties(), template, arguments);
+            entry.addProperty("amount", i).addProperty("world", "world_nether");
+            written.add(entry);
+        }
+        written.add(new LogEntry("Audit", LogLevel.WARN, "Plain message", 1700000001000L, 7L, "Server thread", null, new LogProperties()));
+
+        BinaryLogAppender appender = new BinaryLogAppender(directory.resolve("audit.bxlog"), 4096);
+        appender.appendBatch(written);
+        appender.close();
+
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.sorted((a, b) -> Integer.compare(index(a), index(b))).collect(Collectors.toList());
+        }
+        Assertions.assertTrue(segments.size() > 1, "Expected the entries to span several segments");
+
+        List<LogEntry> read = new ArrayList<>();
+        for (Path segment : segments) {
+            BinaryLogDecoder.read(segment, read::add);
+        }
+
+        Assertions.assertEquals(written.size(), read.size(), "Every entry should be decoded");
+        for (int i = 0; i < written.size(); i++) {
+            Assertions.assertEquals(json(written.get(i)), json(read.get(i)), "Entry " + i + " mismatch");
+        }
+        Assertions.assertEquals(written.get(0).messageTemplate(), read.get(0).messageTemplate(), "Template should be kept");
+    }
+
+    @Test
+    public void testOversizedEntryIsDroppedWithoutLosingTheBatch() throws IOException {
+        Path directory = Files.createTempDirectory("binary-log");
+        LogEntry before = new LogEntry("Audit", LogLevel.INFO, "Before", 1700000000000L, 7L, "Server thread", null, new LogProperties());
+        LogEntry oversized = new LogEntry("Oversized", LogLevel.INFO, "x".repeat(4096), 1700000000001L, 7L, "Server thread", null, new LogProperties());
+        LogEntry after = new LogEntry("Oversized", LogLevel.INFO, "After", 1700000000002L, 7L, "Server thread", null, new LogProperties());
+
+        BinaryLogAppender appender = new BinaryLogAppender(directory.resolve("audit.bxlog"), 1024);
+        appender.appendBatch(List.of(before, oversized, after));
+        appender.close();
+
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.sorted((a, b) -> Integer.compare(index(a), index(b))).collect(Collectors.toList());
+        }
+        List<LogEntry> read = new ArrayList<>();
+        for (Path segment : segments) {
+            BinaryLogDecoder.read(segment, read::add);
+        }
+
+        Assertions.assertEquals(1L, appender.getDroppedCount(), "Oversized entry should be counted as dropped");
+        Assertions.assertEquals(2, read.size(), "Entries around the oversized one should be written");
+        Assertions.assertEquals(json(before), json(read.get(0)), "Entry before the oversized one mismatch");
+        Assertions.assertEquals(json(after), json(read.get(1)), "Entry after the oversized one should not refer to its strings");
+    }
+
+    private static int index(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(name.lastIndexOf('-') + 1, name.lastIndexOf('.')));
+    }
+}
@@ -0,0 +1,74 @@
+package org.bxteam.commons.logger.appender;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogLevel;
+import org.bxteam.commons.logger.LogProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JsonEncoderTest {
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new ThrowableTypeAdapterFactory())
+            .create();
+
+    private static LogEntry entry(String message, Throwable throwable) {
+        return new LogEntry("TestLogger", LogLevel.WARN, message, 1700000000123L, 42L, "Region Thread #3", throwable, new LogProperties());
+    }
+
+    private static JsonElement encode(LogEntry entry, boolean prettyPrint) {
+        JsonEncoder encoder = new JsonEncoder(prettyPrint);
+        encoder.encode(entry);
+        return JsonParser.parseString(encoder.toString());
+    }
+
+    @Test
+    public void testMatchesGsonForSimpleMessage() {
+        LogEntry entry = entry("Player \"Steve\" joined\n\tfrom 127.0.0.1 — ünïcødé 😀 \u0001", null);
+        Assertions.assertEquals(JsonParser.parseString(gson.toJson(entry)), encode(entry, false), "Encoded JSON differs from Gson");
+    }
+
+    @Test
+    public void testMatchesGsonForPropertiesAndCauses() {
+        Exception cause = new IllegalStateException("Inner cause", new NullPointerException());
+        LogEntry entry = entry("Transaction failed", new RuntimeException("Outer", cause))
+                .addProperty("player", "Steve")
+                .addProperty("amount", 250L)
+                .addProperty("ratio", 0.5D)
+                .addProperty("success", false);
+        Assertions.assertEquals(JsonParser.parseString(gson.toJson(entry)), encode(entry, false), "Encoded JSON differs from Gson");
+    }
+
+    @Test
+    public void testMatchesGsonForHtmlCharactersAndNestedValues() {
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("a<b", "x & y");
+        nested.put("skipped", null);
+        nested.put("level", LogLevel.ERROR);
+        LogEntry entry = entry("<b>Tom & 'Jerry'</b> paid=250", null)
+                .addProperty("html", "<script>alert('x')</script>")
+                .addProperty("list", List.of(1, "x=y", List.of(true, 2.5D)))
+                .addProperty("map", nested)
+                .addProperty("array", new int[] {1, 2, 3})
+                .addProperty("enum", LogLevel.INFO);
+        JsonEncoder encoder = new JsonEncoder(false);
+        encoder.encode(entry);
+        Assertions.assertEquals(gson.toJson(entry), encoder.toString(), "Encoded JSON differs from Gson");
+    }
+
+    @Test
+    public void testPrettyPrintMatchesGson() {
+        LogEntry entry = entry("Pretty", new RuntimeException("Failure")).addProperty("key", "value");
+        Gson prettyGson = gson.newBuilder().setPrettyPrinting().create();
+        JsonEncoder encoder = new JsonEncoder(true);
+        encoder.encode(entry);
+        Assertions.assertEquals(prettyGson.toJson(entry), encoder.toString(), "Pretty printed JSON differs from Gson");
+    }
+}
@@ -0,0 +1,68 @@
+package org.bxteam.commons.logger.appender;
+
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogLevel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.util.HashMap;
+
+public class LogTemplateTest {
+    private static LogEntry entry(Throwable throwable) {
+        return new LogEntry("TestLogger", LogLevel.INFO, "Hello", 0L, 7L, "Worker", throwable, new HashMap<>())
+                .addProperty("player", "Steve");
+    }
+
+    @Test
+    public void testRendersFieldsAndProperties() {
+        LogTemplate template = LogTemplate.compile("[{loggerName}/{threadName}#{threadId}] {logLevel} {property:player}{property:missing}: {message} {unknown}");
+        Assertions.assertEquals("[TestLogger/Worker#7] INFO Steve: Hello {unknown}", template.render(entry(null)), "Rendered template mismatch");
+    }
+
+    @Test
+    public void testAppendsStackTraceWithoutStackTraceSegment() {
+        LogTemplate template = LogTemplate.compile("{message}");
+        RuntimeException exception = new RuntimeException("Boom");
+        Assertions.assertTrue(template.render(entry(exception)).startsWith("Hello\n" + exception + "\n\tat "), "Stack trace should be appended on a new line");
+    }
+
+    @Test
+    public void testStackTraceSegmentRendersFramesAndCauses() {
+        LogTemplate template = LogTemplate.compile("{message}{stackTrace}");
+        RuntimeException exception = new RuntimeException("Boom", new IllegalStateException("Cause"));
+        String rendered = template.render(entry(exception));
+
+        Assertions.assertTrue(rendered.startsWith("Hello\n" + exception + "\n\tat "), "Stack trace should follow the message");
+        Assertions.assertTrue(rendered.contains("\nCaused by: java.lang.IllegalStateException: Cause"), "Cause should be rendered");
+        Assertions.assertEquals("Hello", template.render(entry(null)), "Stack trace segment should be empty without a throwable");
+    }
+
+    @Test
+    public void testFoldsCommonFramesAndReferencesRepeatedStackTraces() {
+        LogTemplate template = LogTemplate.compile("{message}");
+        RuntimeException exception = new RuntimeException("Boom", new IllegalStateException("Cause"));
+        String full = template.render(entry(exception));
+        Assertions.assertTrue(full.endsWith("Caused by: java.lang.IllegalStateException: Cause\n\t... " + exception.getStackTrace().length + " more"), "Frames shared with the enclosing trace should be folded");
+
+        StackTraceCache stackTraces = new StackTraceCache();
+        String fingerprint = StackTraceCache.toHex(StackTraceCache.fingerprint(exception));
+        StringBuilder first = new StringBuilder();
+        template.render(entry(exception), first, stackTraces);
+        StringBuilder repeated = new StringBuilder();
+        template.render(entry(exception), repeated, stackTraces);
+
+        Assertions.assertTrue(first.toString().startsWith("Hello\n" + exception + " [stack " + fingerprint + "]\n\tat "), "First occurrence should be written in full");
+        Assertions.assertEquals("Hello\n" + exception + " [stack " + fingerprint + " repeated]", repeated.toString(), "Repeated stack trace should be referenced by fingerprint");
+    }
+
+    @Test
+    public void testSubSecondFieldsAreNotCachedPerSecond() {
+        LogTemplate template = LogTemplate.compile("{timestamp} {timestamp:ss.n}", new TimestampFormatter("A", ZoneOffset.UTC));
+        LogEntry first = new LogEntry("TestLogger", LogLevel.INFO, "Hello", 1000L, 7L, "Worker", null, new HashMap<>());
+        LogEntry second = new LogEntry("TestLogger", LogLevel.INFO, "Hello", 1500L, 7L, "Worker", null, new HashMap<>());
+
+        Assertions.assertEquals("1000 01.0", template.render(first), "First entry of the second mismatch");
+        Assertions.assertEquals("1500 01.500000000", template.render(second), "Fields finer than a second must not be served from the cached second");
+    }
+}
@@ -0,0 +1,148 @@
+package org.bxteam.commons.logger.appender;
+
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogLevel;
+import org.bxteam.commons.logger.LogProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+public class RollingFileAppenderTest {
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private static LogEntry entry(String message, long timestamp) {
+        return new LogEntry("TestLogger", LogLevel.INFO, message, timestamp, 1L, "main", null, new LogProperties());
+    }
+
+    private static List<String> files(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static String gunzip(Path archive) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(archive))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testRollsBySizeIntoGzipArchive() throws IOException {
+        Path directory = Files.createTempDirectory("rolling-log");
+        RollingFileAppender appender = new RollingFileAppender(directory.resolve("app.log").toString(), "{message}", 20, false, 10);
+        long now = System.currentTimeMillis();
+        appender.append(entry("first entry", now));
+        appender.append(entry("second entry", now));
+        appender.append(entry("third entry", now));
+        appender.close();
+
+        String day = LocalDate.now(ZoneId.systemDefault()).toString();
+        Assertions.assertEquals(List.of("app-" + day + "-1.log.gz", "app.log"), files(directory), "Rolled file should only remain compressed");
+        Assertions.assertEquals("first entry" + LINE_SEPARATOR + "second entry" + LINE_SEPARATOR,
+                gunzip(directory.resolve("app-" + day + "-1.log.gz")), "Archive should hold the entries written before the roll");
+        Assertions.assertEquals("third entry" + LINE_SEPARATOR, Files.readString(directory.resolve("app.log")), "Active file should hold the entry after the roll");
+    }
+
+    @Test
+    public void testRollsWhenDayChanges() throws IOException {
+        Path directory = Files.createTempDirectory("rolling-log");
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate firstDay = LocalDate.of(2024, 3, 9);
+        long firstTimestamp = firstDay.atTime(23, 59).atZone(zone).toInstant().toEpochMilli();
+        long secondTimestamp = firstDay.plusDays(1).atTime(0, 1).atZone(zone).toInstant().toEpochMilli();
+
+        RollingFileAppender appender = new RollingFileAppender(directory.resolve("app.log").toString(), "{message}", 0, true, 10);
+        appender.append(entry("before midnight", firstTimestamp));
+        appender.append(entry("still before midnight", firstTimestamp + 1000L));
+        appender.append(entry("after midnight", secondTimestamp));
+        appender.close();
+
+        Assertions.assertEquals(List.of("app-2024-03-09-1.log.gz", "app.log"), files(directory), "Day change should roll the file");
+        Assertions.assertEquals("before midnight" + LINE_SEPARATOR + "still before midnight" + LINE_SEPARATOR,
+                gunzip(directory.resolve("app-2024-03-09-1.log.gz")), "Archive should be named after the day of its entries");
+        Assertions.assertEquals("after midnight" + LINE_SEPARATOR, Files.readString(directory.resolve("app.log")), "Active file should hold the new day");
+    }
+
+    @Test
+    public void testArchiveNamesSkipExistingArchives() throws IOException {
+        Path directory = Files.createTempDirectory("rolling-log");
+        String day = LocalDate.now(ZoneId.systemDefault()).toString();
+        Files.writeString(directory.resolve("app-" + day + "-1.log.gz"), "existing");
+        Files.writeString(directory.resolve("app-" + day + "-2.log"), "existing");
+
+        RollingFileAppender appender = new RollingFileAppender(directory.resolve("app.log").toString(), "{message}", 1, false, 10);
+        appender.append(entry("rolled", System.currentTimeMillis()));
+        appender.close();
+
+        Assertions.assertEquals("existing", Files.readString(directory.resolve("app-" + day + "-1.log.gz")), "Existing archive must not be overwritten");
+        Assertions.assertEquals("rolled" + LINE_SEPARATOR, gunzip(directory.resolve("app-" + day + "-3.log.gz")),
+                "Roll should take the next free index");
+    }
+
+    @Test
+    public void testPrunesOldestArchives() throws IOException {
+        Path directory = Files.createTempDirectory("rolling-log");
+        RollingFileAppender appender = new RollingFileAppender(directory.resolve("app.log").toString(), "{message}", 1, false, 2);
+        for (int i = 1; i <= 5; i++) {
+            appender.append(entry("entry " + i, System.currentTimeMillis()));
+        }
+        appender.close();
+
+        String day = LocalDate.now(ZoneId.systemDefault()).toString();
+        Assertions.assertEquals(List.of("app-" + day + "-4.log.gz", "app-" + day + "-5.log.gz"), files(directory),
+                "Only the newest archives should be kept");
+        Assertions.assertEquals("entry 5" + LINE_SEPARATOR, gunzip(directory.resolve("app-" + day + "-5.log.gz")), "Newest archive should hold the last entry");
+    }
+
+    @Test
+    public void testPruneBreaksTimestampTiesOnArchiveIndex() throws IOException {
+        Path directory = Files.createTempDirectory("rolling-log");
+        String day = LocalDate.now(ZoneId.systemDefault()).toString();
+        FileTime rolledAt = FileTime.fromMillis(System.currentTimeMillis() - 60_000L);
+        for (int i = 1; i <= 11; i++) {
+            Path archive = Files.writeString(directory.resolve("app-" + day + "-" + i + ".log.gz"), "existing");
+            Files.setLastModifiedTime(archive, rolledAt);
+        }
+
+        RollingFileAppender appender = new RollingFileAppender(directory.resolve("app.log").toString(), "{message}", 1, false, 2);
+        appender.append(entry("rolled", System.currentTimeMillis()));
+        appender.close();
+
+        Assertions.assertEquals(List.of("app-" + day + "-11.log.gz", "app-" + day + "-12.log.gz"), files(directory),
+                "Archives with the same timestamp should be pruned by numeric index");
+    }
+
+    @Test
+    public void testCloseWithTimeoutStillWritesTheActiveFile() throws IOException {
+        Path directory = Files.createTempDirectory("rolling-log");
+        RollingFileAppender appender = new RollingFileAppender(directory.resolve("app.log").toString(), "{message}", 1024, false, 10);
+        appender.append(entry("buffered", System.currentTimeMillis()));
+
+        long start = System.nanoTime();
+        appender.close(Duration.ZERO);
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5L), "Close should not wait past its timeout");
+        Assertions.assertEquals("buffered" + LINE_SEPARATOR, Files.readString(directory.resolve("app.log")), "Buffered output should be written on close");
+    }
+
+    @Test
+    public void testRejectsInvalidLimits() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RollingFileAppender("app.log", "{message}", 1024, false, -1),
+                "Negative archive count should be rejected");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RollingFileAppender("app.log", "{message}", 0, false, 5),
+                "A file that is never rolled should be rejected");
+    }
+}
@@ -0,0 +1,189 @@
+package org.bxteam.commons.logger.dispatch;
+
+import org.bxteam.commons.logger.ExtendedLogger;
+import org.bxteam.commons.logger.LogContext;
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogLevel;
+import org.bxteam.commons.logger.appender.Appender;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class LogDispatcherTest {
+    static class TestAppender implements Appender {
+        final List<LogEntry> logEntries = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch release;
+
+        TestAppender(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void append(LogEntry entry) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            logEntries.add(entry);
+        }
+
+        @Override
+        public void close() {
+            // No resources to close.
+        }
+    }
+
+    private static LogEntry entry(LogLevel logLevel, String message) {
+        return new LogEntry("TestLogger", logLevel, message, System.currentTimeMillis(), 1L, "main", null, new HashMap<>());
+    }
+
+    @Test
+    public void testMultipleProducersDeliverEverything() throws InterruptedException {
+        TestAppender appender = new TestAppender(new CountDownLatch(0));
+        LogDispatcher dispatcher = new LogDispatcher("Test-Dispatcher", 64, OverflowPolicy.BLOCK);
+        List<Appender> appenders = List.of(appender);
+
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread producer = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    dispatcher.dispatch(entry(LogLevel.INFO, "message " + j), appenders);
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        Assertions.assertTrue(dispatcher.shutdown(5L, TimeUnit.SECONDS), "Dispatcher did not drain in time");
+        Assertions.assertEquals(8000, appender.logEntries.size(), "Expected every entry to be delivered");
+        Assertions.assertEquals(0L, dispatcher.getDroppedCount(), "BLOCK policy must not drop entries");
+    }
+
+    @Test
+    public void testProducersRacingShutdownLoseNothing() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            TestAppender appender = new TestAppender(new CountDownLatch(0));
+            LogDispatcher dispatcher = new LogDispatcher("Test-Dispatcher", 64, OverflowPolicy.BLOCK);
+            List<Appender> appenders = List.of(appender);
+            CountDownLatch started = new CountDownLatch(4);
+
+            List<Thread> producers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Thread producer = new Thread(() -> {
+                    started.countDown();
+                    for (int j = 0; j < 2000; j++) {
+                        dispatcher.dispatch(entry(LogLevel.INFO, "message " + j), appenders);
+                    }
+                });
+                producers.add(producer);
+                producer.start();
+            }
+            started.await();
+            Assertions.assertTrue(dispatcher.shutdown(5L, TimeUnit.SECONDS), "Dispatcher did not drain in time");
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            Assertions.assertEquals(8000, appender.logEntries.size(), "Entries dispatched around the shutdown must not be lost");
+        }
+    }
+
+    @Test
+    public void testDropBelowLevelKeepsWarnings() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        TestAppender appender = new TestAppender(release);
+        LogDispatcher dispatcher = new LogDispatcher("Test-Dispatcher", 4, OverflowPolicy.DROP_BELOW_LEVEL);
+        List<Appender> appenders = List.of(appender);
+
+        for (int i = 0; i < 20; i++) {
+            dispatcher.dispatch(entry(LogLevel.DEBUG, "debug " + i), appenders);
+        }
+        Thread warnProducer = new Thread(() -> dispatcher.dispatch(entry(LogLevel.WARN, "warning"), appenders));
+        warnProducer.start();
+        release.countDown();
+        warnProducer.join();
+
+        Assertions.assertTrue(dispatcher.shutdown(5L, TimeUnit.SECONDS), "Dispatcher did not drain in time");
+        Assertions.assertTrue(dispatcher.getDroppedCount() > 0, "Expected DEBUG entries to be dropped");
+        Assertions.assertEquals(20 - dispatcher.getDroppedCount() + 1, appender.logEntries.size(), "Delivered and dropped entries must add up");
+        Assertions.assertEquals("warning", appender.logEntries.get(appender.logEntries.size() - 1).message(), "WARN entry must not be dropped");
+    }
+
+    @Test
+    public void testPoolIsolatesSlowAppender() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        TestAppender slowAppender = new TestAppender(release);
+        TestAppender fastAppender = new TestAppender(new CountDownLatch(0));
+        DispatcherPool pool = new DispatcherPool("Test-Pool", 2, 64, OverflowPolicy.BLOCK);
+
+        Assertions.assertNotSame(pool.dispatcherFor(slowAppender), pool.dispatcherFor(fastAppender), "Appenders should be spread over the pool");
+        Assertions.assertSame(pool.dispatcherFor(slowAppender), pool.dispatcherFor(slowAppender), "Assignments must be stable");
+
+        List<Appender> slow = List.of(slowAppender);
+        List<Appender> fast = List.of(fastAppender);
+        for (int i = 0; i < 10; i++) {
+            LogEntry entry = entry(LogLevel.INFO, "message " + i);
+            pool.dispatcherFor(slowAppender).dispatch(entry, slow);
+            pool.dispatcherFor(fastAppender).dispatch(entry, fast);
+        }
+
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (fastAppender.logEntries.size() < 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        Assertions.assertEquals(10, fastAppender.logEntries.size(), "Fast appender must not wait for the slow one");
+        Assertions.assertTrue(slowAppender.logEntries.isEmpty(), "Slow appender should still be blocked");
+
+        release.countDown();
+        Assertions.assertTrue(pool.shutdown(5L, TimeUnit.SECONDS), "Pool did not drain in time");
+        Assertions.assertEquals(10, slowAppender.logEntries.size(), "Slow appender should receive every entry");
+    }
+
+    @Test
+    public void testLiveDispatchersAreRegisteredUntilShutdown() {
+        LogDispatcher dispatcher = new LogDispatcher("Test-Dispatcher", 16, OverflowPolicy.BLOCK);
+        DispatcherPool pool = new DispatcherPool("Test-Pool", 2, 16, OverflowPolicy.BLOCK);
+
+        Assertions.assertTrue(LogDispatcher.getLiveDispatchers().contains(dispatcher), "New dispatcher should be registered");
+        Assertions.assertTrue(LogDispatcher.getLiveDispatchers().containsAll(pool.getDispatchers()), "Pool dispatchers should be registered");
+
+        dispatcher.shutdown(5L, TimeUnit.SECONDS);
+        pool.shutdown(5L, TimeUnit.SECONDS);
+        Assertions.assertFalse(LogDispatcher.getLiveDispatchers().contains(dispatcher), "Shut down dispatcher should be unregistered");
+        for (LogDispatcher pooled : pool.getDispatchers()) {
+            Assertions.assertFalse(LogDispatcher.getLiveDispatchers().contains(pooled), "Shut down pool dispatcher should be unregistered");
+        }
+    }
+
+    @Test
+    public void testGarbageFreeDispatcherFillsEventsInPlace() {
+        TestAppender appender = new TestAppender(new CountDownLatch(0));
+        LogDispatcher dispatcher = new LogDispatcher("Test-Dispatcher", 16, OverflowPolicy.BLOCK, LogLevel.WARN, 4, true);
+        ExtendedLogger logger = new ExtendedLogger("TestLogger", LogLevel.INFO, List.of(appender), List.of(), dispatcher);
+
+        try (LogContext.Scope scope = LogContext.put("player", "Steve")) {
+            for (int i = 0; i < 100; i++) {
+                logger.info("Message {}", i);
+            }
+        }
+        Assertions.assertTrue(dispatcher.flush(5, TimeUnit.SECONDS), "Dispatcher should flush in time");
+        dispatcher.shutdown(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(100, appender.logEntries.size(), "Every event should be delivered despite slot reuse");
+        for (int i = 0; i < 100; i++) {
+            LogEntry entry = appender.logEntries.get(i);
+            Assertions.assertEquals("Message " + i, entry.message(), "Copied event should keep its message after recycling");
+            Assertions.assertEquals("Steve", entry.properties().get("player"), "Event should carry the log context");
+        }
+    }
+}
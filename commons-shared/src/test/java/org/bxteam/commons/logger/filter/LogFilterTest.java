@@ -0,0 +1,100 @@
+package org.bxteam.commons.logger.filter;
+
+import org.bxteam.commons.logger.ExtendedLogger;
+import org.bxteam.commons.logger.LogEntry;
+import org.bxteam.commons.logger.LogLevel;
+import org.bxteam.commons.logger.appender.Appender;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class LogFilterTest {
+    static class TestAppender implements Appender {
+        final List<LogEntry> logEntries = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void append(LogEntry entry) {
+            logEntries.add(entry);
+        }
+
+        @Override
+        public void close() {
+            // No resources to close.
+        }
+    }
+
+    @Test
+    public void testRateLimitPerTemplate() throws InterruptedException {
+        TestAppender testAppender = new TestAppender();
+        ExtendedLogger logger = new ExtendedLogger("TestLogger", LogLevel.INFO, List.of(testAppender), List.of());
+        RateLimitFilter filter = new RateLimitFilter(1D, 3);
+        logger.addListener(filter);
+
+        for (int i = 0; i < 10; i++) {
+            logger.error("Tick {} failed", i);
+        }
+        logger.error("Other failure");
+
+        Thread.sleep(300);
+
+        Assertions.assertEquals(4, testAppender.logEntries.size(), "Expected the burst plus the other template");
+        Assertions.assertEquals(7L, filter.getSuppressedCount(), "Expected the rest to be suppressed");
+        Assertions.assertEquals(7L, logger.getFilteredCount(), "Logger should count filtered entries");
+    }
+
+    @Test
+    public void testRepeatedMessagesAreCollapsed() throws InterruptedException {
+        TestAppender testAppender = new TestAppender();
+        ExtendedLogger logger = new ExtendedLogger("TestLogger", LogLevel.INFO, List.of(testAppender), List.of());
+        logger.addListener(new DeduplicatingFilter(logger, Duration.ofMinutes(1)));
+
+        for (int i = 0; i < 5; i++) {
+            logger.warn("Chunk save failed");
+        }
+        logger.info("Chunk saved");
+
+        Thread.sleep(300);
+
+        Assertions.assertEquals(3, testAppender.logEntries.size(), "Expected first entry, summary and next entry");
+        LogEntry summary = testAppender.logEntries.get(1);
+        Assertions.assertEquals("Previous message repeated 4 times: Chunk save failed", summary.message(), "Summary message mismatch");
+        Assertions.assertEquals(4L, summary.properties().get(DeduplicatingFilter.REPEATED_PROPERTY), "Summary property mismatch");
+        Assertions.assertEquals("Chunk saved", testAppender.logEntries.get(2).message(), "Next entry should follow the summary");
+    }
+
+    @Test
+    public void testSameTemplateWithOtherArgumentsIsNotCollapsed() throws InterruptedException {
+        TestAppender testAppender = new TestAppender();
+        ExtendedLogger logger = new ExtendedLogger("TestLogger", LogLevel.INFO, List.of(testAppender), List.of());
+        logger.addListener(new DeduplicatingFilter(logger, Duration.ofMinutes(1)));
+
+        logger.info("Player {} joined", "Alex");
+        logger.info("Player {} joined", "Steve");
+        logger.info("Player {} joined", "Steve");
+
+        Assertions.assertTrue(logger.flush(Duration.ofSeconds(5)), "Logger should flush in time");
+        Assertions.assertEquals(3, testAppender.logEntries.size(), "Expected both players plus the summary of the repeat");
+        Assertions.assertEquals("Player Alex joined", testAppender.logEntries.get(0).message(), "First player mismatch");
+        Assertions.assertEquals("Player Steve joined", testAppender.logEntries.get(1).message(), "Second player must not be collapsed into the first");
+        Assertions.assertEquals("Previous message repeated 1 times: Player Steve joined", testAppender.logEntries.get(2).message(), "Summary should name the repeated message");
+    }
+
+    @Test
+    public void testTrailingRunIsSummarizedOnFlush() {
+        TestAppender testAppender = new TestAppender();
+        ExtendedLogger logger = new ExtendedLogger("TestLogger", LogLevel.INFO, List.of(testAppender), List.of());
+        logger.addListener(new DeduplicatingFilter(logger, Duration.ofMinutes(1)));
+
+        for (int i = 0; i < 3; i++) {
+            logger.error("Tick took too long");
+        }
+
+        Assertions.assertTrue(logger.flush(Duration.ofSeconds(5)), "Logger should flush in time");
+        Assertions.assertEquals(2, testAppender.logEntries.size(), "Expected the first entry and the summary");
+        Assertions.assertEquals(2L, testAppender.logEntries.get(1).properties().get(DeduplicatingFilter.REPEATED_PROPERTY), "Summary property mismatch");
+    }
+}
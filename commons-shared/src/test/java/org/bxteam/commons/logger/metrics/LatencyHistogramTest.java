@@ -0,0 +1,34 @@
+package org.bxteam.commons.logger.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+    @Test
+    public void testPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000L);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assertions.assertEquals(100_000L, snapshot.getCount(), "Every value should be counted");
+        Assertions.assertEquals(100_000_000L, snapshot.getMaxNanos(), "Maximum mismatch");
+
+        long p50 = snapshot.getValueAtPercentile(50D);
+        long p99 = snapshot.getValueAtPercentile(99D);
+        Assertions.assertEquals(50_000_000D, p50, 50_000_000D * 0.04D, "p50 outside of bucket precision");
+        Assertions.assertEquals(99_000_000D, p99, 99_000_000D * 0.04D, "p99 outside of bucket precision");
+    }
+
+    @Test
+    public void testBucketsCoverTheWholeRange() {
+        for (long value : new long[]{0L, 1L, 31L, 32L, 33L, 1_000L, 1L << 40, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            Assertions.assertTrue(LatencyHistogram.highestValueAt(index) >= value, "Bucket upper bound below " + value);
+            if (index > 0) {
+                Assertions.assertTrue(LatencyHistogram.highestValueAt(index - 1) < value, "Value " + value + " belongs to a lower bucket");
+            }
+        }
+    }
+}
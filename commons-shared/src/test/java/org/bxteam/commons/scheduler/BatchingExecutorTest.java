@@ -0,0 +1,120 @@
+package org.bxteam.commons.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BatchingExecutorTest {
+    @Test
+    public void testCoalescesSubmissionsIntoOneTaskPerTick() {
+        TickScheduler scheduler = new TickScheduler();
+        BatchingExecutor batching = new BatchingExecutor(scheduler);
+        AtomicInteger counter = new AtomicInteger();
+
+        for (int i = 0; i < 1000; i++) {
+            batching.execute(counter::incrementAndGet);
+        }
+        Assertions.assertEquals(1, scheduler.tasks.size(), "Submissions within a tick should share one platform task");
+
+        scheduler.tick();
+        Assertions.assertEquals(1000, counter.get(), "The drain should run every queued task");
+        Assertions.assertEquals(0, batching.getPendingTasks(), "No task should be pending after the drain");
+    }
+
+    @Test
+    public void testTaskSubmittedDuringDrainRunsOnNextTick() {
+        TickScheduler scheduler = new TickScheduler();
+        BatchingExecutor batching = new BatchingExecutor(scheduler);
+        AtomicInteger counter = new AtomicInteger();
+
+        batching.execute(() -> {
+            counter.incrementAndGet();
+            batching.execute(counter::incrementAndGet);
+        });
+        scheduler.tick();
+        Assertions.assertEquals(1, counter.get(), "Task submitted by the drain should wait for the next tick");
+        Assertions.assertEquals(1, scheduler.tasks.size(), "The drain should schedule itself again");
+
+        scheduler.tick();
+        Assertions.assertEquals(2, counter.get(), "Task should run on the next tick");
+    }
+
+    /**
+     * Scheduler queueing tasks until {@link #tick()} runs them, like a server thread.
+     */
+    static class TickScheduler implements Scheduler {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        void tick() {
+            List<Runnable> current = new ArrayList<>(tasks);
+            tasks.clear();
+            current.forEach(Runnable::run);
+        }
+
+        @Override
+        public boolean isGlobalThread() {
+            return true;
+        }
+
+        @Override
+        public boolean isEntityThread(Entity entity) {
+            return true;
+        }
+
+        @Override
+        public boolean isRegionThread(Location location) {
+            return true;
+        }
+
+        @Override
+        public Task runTask(Runnable runnable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Task runTaskLater(Runnable runnable, long delay) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Task runTaskTimer(Runnable runnable, long delay, long period) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Task runTaskAsynchronously(Runnable runnable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Task runTaskLaterAsynchronously(Runnable runnable, long delay) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Task runTaskTimerAsynchronously(Runnable runnable, long delay, long period) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void execute(Runnable runnable) {
+            tasks.add(runnable);
+        }
+
+        @Override
+        public void cancelTasks() {
+            tasks.clear();
+        }
+
+        @Override
+        public void cancelTasks(Plugin plugin) {
+            tasks.clear();
+        }
+    }
+}
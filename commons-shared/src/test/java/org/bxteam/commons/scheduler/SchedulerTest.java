@@ -0,0 +1,167 @@
+package org.bxteam.commons.scheduler;
+
+import org.bukkit.Location;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+public class SchedulerTest {
+    private static BatchingExecutorTest.TickScheduler rejectingScheduler(RejectedExecutionException rejection) {
+        return new BatchingExecutorTest.TickScheduler() {
+            @Override
+            public void execute(Runnable runnable) {
+                throw rejection;
+            }
+        };
+    }
+
+    @Test
+    public void testCallSyncMethodCompletesOnTheTick() throws Exception {
+        BatchingExecutorTest.TickScheduler scheduler = new BatchingExecutorTest.TickScheduler();
+
+        Future<String> future = scheduler.callSyncMethod(() -> "value");
+        Assertions.assertFalse(future.isDone(), "Future should not complete before the task ran");
+
+        scheduler.tick();
+        Assertions.assertEquals("value", future.get(), "Future should complete with the value of the task");
+    }
+
+    @Test
+    public void testCallSyncMethodPropagatesException() {
+        BatchingExecutorTest.TickScheduler scheduler = new BatchingExecutorTest.TickScheduler();
+        Exception failure = new Exception("failed");
+
+        Future<String> future = scheduler.callSyncMethod(() -> {
+            throw failure;
+        });
+        scheduler.tick();
+
+        Assertions.assertTrue(future.isDone(), "Future should complete even though the task threw");
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, future::get, "Future should complete exceptionally");
+        Assertions.assertSame(failure, exception.getCause(), "Future should carry the exception of the task");
+    }
+
+    @Test
+    public void testCallSyncMethodCompletesExceptionallyWhenRejected() {
+        RejectedExecutionException rejection = new RejectedExecutionException("stopped");
+        BatchingExecutorTest.TickScheduler scheduler = rejectingScheduler(rejection);
+
+        Future<String> future = scheduler.callSyncMethod(() -> "value");
+
+        Assertions.assertTrue(future.isDone(), "Future should complete when the scheduler rejects the task");
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, future::get, "Future should complete exceptionally");
+        Assertions.assertSame(rejection, exception.getCause(), "Future should carry the rejection");
+    }
+
+    @Test
+    public void testSupplyCompletesOnTheTick() throws Exception {
+        BatchingExecutorTest.TickScheduler scheduler = new BatchingExecutorTest.TickScheduler();
+        Location location = new Location(null, 0, 64, 0);
+
+        CompletableFuture<Integer> global = scheduler.supply(() -> 1);
+        CompletableFuture<Integer> region = scheduler.supply(location, () -> 2);
+        Assertions.assertEquals(2, scheduler.tasks.size(), "Each supplier should be scheduled as a task");
+        Assertions.assertFalse(global.isDone() || region.isDone(), "Futures should not complete before the tasks ran");
+
+        scheduler.tick();
+        Assertions.assertEquals(Integer.valueOf(1), global.get(), "Global future should complete with the supplied value");
+        Assertions.assertEquals(Integer.valueOf(2), region.get(), "Region future should complete with the supplied value");
+    }
+
+    @Test
+    public void testSupplyPropagatesException() {
+        BatchingExecutorTest.TickScheduler scheduler = new BatchingExecutorTest.TickScheduler();
+        IllegalStateException failure = new IllegalStateException("failed");
+
+        CompletableFuture<Integer> future = scheduler.supply(() -> {
+            throw failure;
+        });
+        scheduler.tick();
+
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, future::get, "Future should complete exceptionally");
+        Assertions.assertSame(failure, exception.getCause(), "Future should carry the exception of the supplier");
+    }
+
+    @Test
+    public void testSupplyCompletesExceptionallyWhenRejected() {
+        RejectedExecutionException rejection = new RejectedExecutionException("stopped");
+        BatchingExecutorTest.TickScheduler scheduler = rejectingScheduler(rejection);
+
+        CompletableFuture<Integer> future = scheduler.supply(() -> 1);
+        CompletableFuture<Integer> direct = Scheduler.supply(runnable -> {
+            throw rejection;
+        }, () -> 1);
+
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, future::get, "Future should complete exceptionally");
+        Assertions.assertSame(rejection, exception.getCause(), "Future should carry the rejection");
+        exception = Assertions.assertThrows(ExecutionException.class, direct::get, "Future of a rejecting executor should complete exceptionally");
+        Assertions.assertSame(rejection, exception.getCause(), "Future of a rejecting executor should carry the rejection");
+    }
+
+    @Test
+    public void testExecutorViewsScheduleOnTheScheduler() {
+        BatchingExecutorTest.TickScheduler scheduler = new BatchingExecutorTest.TickScheduler();
+        List<String> ran = new ArrayList<>();
+
+        scheduler.globalExecutor().execute(() -> ran.add("global"));
+        scheduler.regionExecutor(new Location(null, 0, 64, 0)).execute(() -> ran.add("region"));
+        Assertions.assertTrue(ran.isEmpty(), "Executors should not run tasks inline");
+
+        scheduler.tick();
+        Assertions.assertEquals(List.of("global", "region"), ran, "Executors should run tasks through the scheduler");
+    }
+
+    @Test
+    public void testRunForEachProcessesItemsInOneTask() {
+        BatchingExecutorTest.TickScheduler scheduler = new BatchingExecutorTest.TickScheduler();
+        List<Location> locations = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            locations.add(new Location(null, i * 16, 64, 0));
+        }
+        List<Location> processed = new ArrayList<>();
+
+        CompletableFuture<Void> future = scheduler.runForEach(locations, processed::add);
+        locations.clear();
+        Assertions.assertEquals(1, scheduler.tasks.size(), "Every item should be processed by a single task");
+        Assertions.assertFalse(future.isDone(), "Future should not complete before the task ran");
+
+        scheduler.tick();
+        Assertions.assertTrue(future.isDone() && !future.isCompletedExceptionally(), "Future should complete once the task ran");
+        Assertions.assertEquals(3, processed.size(), "Items should be copied when the task is scheduled");
+        Assertions.assertEquals(32, processed.get(2).getBlockX(), "Items should be processed in order");
+    }
+
+    @Test
+    public void testRunForEachWithoutItemsSchedulesNothing() {
+        BatchingExecutorTest.TickScheduler scheduler = new BatchingExecutorTest.TickScheduler();
+
+        CompletableFuture<Void> future = scheduler.runForEach(List.<Location>of(), location -> Assertions.fail("No item to process"));
+        Assertions.assertTrue(future.isDone() && !future.isCompletedExceptionally(), "Future should complete immediately");
+        Assertions.assertTrue(scheduler.tasks.isEmpty(), "No task should be scheduled");
+    }
+
+    @Test
+    public void testRunForEachCompletesExceptionallyWhenActionThrows() {
+        BatchingExecutorTest.TickScheduler scheduler = new BatchingExecutorTest.TickScheduler();
+        List<String> processed = new ArrayList<>();
+        IllegalStateException failure = new IllegalStateException("failed");
+
+        CompletableFuture<Void> future = scheduler.runForEach(List.of("first", "second", "third"), item -> null, item -> {
+            if (item.equals("second")) {
+                throw failure;
+            }
+            processed.add(item);
+        });
+        scheduler.tick();
+
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, future::get, "Future should complete exceptionally");
+        Assertions.assertSame(failure, exception.getCause(), "Future should carry the exception of the action");
+        Assertions.assertEquals(List.of("first"), processed, "Items after the failing one should not be processed");
+    }
+}
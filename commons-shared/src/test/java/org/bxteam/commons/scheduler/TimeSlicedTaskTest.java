@@ -0,0 +1,58 @@
+package org.bxteam.commons.scheduler;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class TimeSlicedTaskTest {
+    @Test
+    public void testYieldsOnceBudgetIsUsedUp() throws Exception {
+        AtomicInteger processed = new AtomicInteger();
+        TimeSlicedTask task = new TimeSlicedTask(Workload.of(IntStream.range(0, 10).iterator(), i -> {
+            processed.incrementAndGet();
+            sleep(2);
+        }), TimeUnit.MILLISECONDS.toNanos(5));
+
+        task.run();
+        Assertions.assertTrue(processed.get() >= 1 && processed.get() <= 3, "A run should stop once its budget is used up");
+        Assertions.assertFalse(task.getFuture().isDone(), "Task should not complete before the workload is exhausted");
+
+        while (!task.getFuture().isDone()) {
+            task.run();
+        }
+        Assertions.assertEquals(10, processed.get(), "Every element should be processed");
+    }
+
+    @Test
+    public void testHalvesBudgetWhenTicksFallBehind() {
+        long budget = TimeUnit.MILLISECONDS.toNanos(8);
+        TimeSlicedTask task = new TimeSlicedTask(Workload.of(List.of(1, 2, 3).spliterator(), i -> sleep(60)), budget);
+
+        task.run();
+        task.run();
+        Assertions.assertEquals(budget / 2, task.getBudgetNanos(), "A tick longer than 50 ms should halve the budget");
+    }
+
+    @Test
+    public void testCancelStopsWorkload() {
+        AtomicInteger processed = new AtomicInteger();
+        TimeSlicedTask task = new TimeSlicedTask(() -> processed.incrementAndGet() > 0, 1L);
+
+        task.cancel();
+        task.run();
+        Assertions.assertTrue(task.isCancelled(), "Task should be cancelled");
+        Assertions.assertEquals(0, processed.get(), "Cancelled task should not process the workload");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package org.bxteam.commons.scheduler;
+
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+public class VirtualThreadAsyncSchedulerTest {
+    private static Plugin plugin(Logger logger) {
+        return plugin(logger, new AtomicBoolean(true));
+    }
+
+    private static Plugin plugin(Logger logger, AtomicBoolean enabled) {
+        return (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[]{Plugin.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return "TestPlugin";
+                case "getLogger":
+                    return logger;
+                case "isEnabled":
+                    return enabled.get();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "TestPlugin";
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private static VirtualThreadAsyncScheduler scheduler() {
+        Assumptions.assumeTrue(VirtualThreadAsyncScheduler.isSupported(), "Virtual threads require Java 21");
+        VirtualThreadAsyncScheduler scheduler = VirtualThreadAsyncScheduler.create(plugin(Logger.getLogger("TestPlugin")));
+        Assertions.assertNotNull(scheduler, "Scheduler should be created when virtual threads are supported");
+        return scheduler;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.nanoTime() < deadline, message);
+            Thread.sleep(5L);
+        }
+    }
+
+    @Test
+    public void testCreateReturnsNullWithoutVirtualThreads() {
+        Assumptions.assumeFalse(VirtualThreadAsyncScheduler.isSupported(), "Virtual threads are supported");
+        Assertions.assertNull(VirtualThreadAsyncScheduler.create(plugin(Logger.getLogger("TestPlugin"))),
+                "Create should return null so the platform scheduler is used instead");
+    }
+
+    @Test
+    public void testCancelBeforeFirstRun() throws InterruptedException {
+        VirtualThreadAsyncScheduler scheduler = scheduler();
+        AtomicInteger runs = new AtomicInteger();
+
+        Task task = scheduler.runTaskLater(runs::incrementAndGet, 2L);
+        task.cancel();
+        Thread.sleep(250L);
+
+        Assertions.assertTrue(task.isCancelled(), "Task should be cancelled");
+        Assertions.assertEquals(0, runs.get(), "Task cancelled before its delay elapsed should never run");
+    }
+
+    @Test
+    public void testCancelRepeatingTaskDuringRun() throws InterruptedException {
+        VirtualThreadAsyncScheduler scheduler = scheduler();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Task task = scheduler.runTaskTimer(() -> {
+            runs.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 0L, 1L);
+        Assertions.assertTrue(started.await(5L, TimeUnit.SECONDS), "Task should start");
+        task.cancel();
+        release.countDown();
+        Thread.sleep(250L);
+
+        Assertions.assertEquals(1, runs.get(), "Task cancelled during a run should not be scheduled again");
+    }
+
+    @Test
+    public void testIsCurrentlyRunning() throws InterruptedException {
+        VirtualThreadAsyncScheduler scheduler = scheduler();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Task task = scheduler.runTask(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assertions.assertTrue(started.await(5L, TimeUnit.SECONDS), "Task should start");
+        Assertions.assertTrue(task.isCurrentlyRunning(), "Task should be running while its runnable runs");
+
+        release.countDown();
+        awaitUntil(() -> !task.isCurrentlyRunning(), "Task should stop running once its runnable returned");
+    }
+
+    @Test
+    public void testRepeatingRunsNeverOverlap() throws InterruptedException {
+        VirtualThreadAsyncScheduler scheduler = scheduler();
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        AtomicInteger runs = new AtomicInteger();
+
+        Task task = scheduler.runTaskTimer(() -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                // Longer than the period, so the next run is due before this one returns.
+                Thread.sleep(120L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+            runs.incrementAndGet();
+        }, 0L, 1L);
+        awaitUntil(() -> runs.get() >= 3, "Task should keep repeating");
+        task.cancel();
+
+        Assertions.assertEquals(1, maxActive.get(), "Runs of a repeating task must not overlap");
+    }
+
+    @Test
+    public void testFailureIsLoggedThroughPluginLogger() throws InterruptedException {
+        Assumptions.assumeTrue(VirtualThreadAsyncScheduler.isSupported(), "Virtual threads require Java 21");
+        List<LogRecord> records = new CopyOnWriteArrayList<>();
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        VirtualThreadAsyncScheduler scheduler = VirtualThreadAsyncScheduler.create(plugin(logger));
+        IllegalStateException failure = new IllegalStateException("failed");
+
+        scheduler.runTask(() -> {
+            throw failure;
+        });
+        awaitUntil(() -> !records.isEmpty(), "Failure should be logged");
+
+        Assertions.assertEquals(Level.WARNING, records.get(0).getLevel(), "Failure should be logged as a warning");
+        Assertions.assertSame(failure, records.get(0).getThrown(), "Log record should carry the exception");
+    }
+
+    @Test
+    public void testShutsDownOnceThePluginIsDisabled() throws InterruptedException {
+        Assumptions.assumeTrue(VirtualThreadAsyncScheduler.isSupported(), "Virtual threads require Java 21");
+        AtomicBoolean enabled = new AtomicBoolean(true);
+        VirtualThreadAsyncScheduler scheduler = VirtualThreadAsyncScheduler.create(plugin(Logger.getLogger("TestPlugin"), enabled));
+        AtomicInteger runs = new AtomicInteger();
+
+        Task timer = scheduler.runTaskTimer(runs::incrementAndGet, 0L, 1L);
+        awaitUntil(() -> runs.get() >= 2, "Task should keep repeating");
+        enabled.set(false);
+        awaitUntil(scheduler::isShutdown, "Next due run should shut the backend down");
+        int runsAtShutdown = runs.get();
+        Thread.sleep(150L);
+
+        Assertions.assertEquals(runsAtShutdown, runs.get(), "Disabled plugin's timer must not run again");
+        Assertions.assertTrue(timer.isCancelled(), "Timer should be cancelled by the shutdown");
+
+        AtomicInteger lateRuns = new AtomicInteger();
+        Task late = scheduler.runTask(lateRuns::incrementAndGet);
+        Thread.sleep(100L);
+        Assertions.assertTrue(late.isCancelled(), "Task scheduled after the plugin was disabled should be cancelled");
+        Assertions.assertEquals(0, lateRuns.get(), "Task scheduled after the plugin was disabled must not run");
+    }
+
+    @Test
+    public void testCancelTasksShutsDownForDisabledPlugin() {
+        Assumptions.assumeTrue(VirtualThreadAsyncScheduler.isSupported(), "Virtual threads require Java 21");
+        AtomicBoolean enabled = new AtomicBoolean(true);
+        VirtualThreadAsyncScheduler scheduler = VirtualThreadAsyncScheduler.create(plugin(Logger.getLogger("TestPlugin"), enabled));
+
+        scheduler.cancelTasks();
+        Assertions.assertFalse(scheduler.isShutdown(), "Cancelling the tasks of an enabled plugin should keep the backend usable");
+
+        enabled.set(false);
+        scheduler.cancelTasks();
+        Assertions.assertTrue(scheduler.isShutdown(), "Cancelling the tasks of a disabled plugin should shut the backend down");
+    }
+}
@@ -0,0 +1,92 @@
+package org.bxteam.commons.logger.appender;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * A factory for creating type adapters for Throwable serialization, as {@link JsonAppender} used with Gson
+ * before {@link JsonEncoder} replaced it. Tests and benchmarks compare the encoder's output with Gson's.
+ */
+@SuppressWarnings("unchecked")
+public class ThrowableTypeAdapterFactory implements TypeAdapterFactory {
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (!Throwable.class.isAssignableFrom(type.getRawType())) {
+            return null;
+        }
+
+        return (TypeAdapter<T>) new ThrowableTypeAdapter();
+    }
+
+    /**
+     * A type adapter for serializing and deserializing Throwable objects to/from JSON.
+     */
+    static class ThrowableTypeAdapter extends TypeAdapter<Throwable> {
+        @Override
+        public void write(JsonWriter out, Throwable throwable) throws IOException {
+            if (throwable == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            out.name("type").value(throwable.getClass().getName());
+            out.name("message").value(throwable.getMessage());
+            out.name("stackTrace");
+            out.beginArray();
+
+            for (StackTraceElement element : throwable.getStackTrace()) {
+                out.beginObject();
+                out.name("className").value(element.getClassName());
+                out.name("methodName").value(element.getMethodName());
+                out.name("fileName").value(element.getFileName());
+                out.name("lineNumber").value(element.getLineNumber());
+                out.endObject();
+            }
+
+            out.endArray();
+            Throwable cause = throwable.getCause();
+
+            if (cause != null && cause != throwable) {
+                out.name("cause");
+                write(out, cause);
+            }
+
+            out.endObject();
+        }
+
+        @Override
+        public Throwable read(JsonReader in) throws IOException {
+            in.beginObject();
+            String message = null;
+            String type = null;
+            Throwable cause = null;
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "type":
+                        type = in.nextString();
+                        break;
+                    case "message":
+                        message = in.nextString();
+                        break;
+                    case "cause":
+                        cause = read(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+
+            return new Throwable(message, cause);
+        }
+    }
+}
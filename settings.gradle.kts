@@ -1,5 +1,6 @@
 rootProject.name = "commons"
 
+include(":commons-benchmarks")
 include(":commons-bukkit")
 include(":commons-folia")
 include(":commons-shared")